@@ -0,0 +1,21 @@
+package com.parser.Parser.Application.service;
+
+import com.parser.Parser.Application.service.mappers.CodeScanMapper;
+import com.parser.Parser.Application.service.mappers.DependabotMapper;
+import com.parser.Parser.Application.service.mappers.MapperRegistry;
+import com.parser.Parser.Application.service.mappers.SarifMapper;
+import com.parser.Parser.Application.service.mappers.SecretScanMapper;
+
+import java.util.List;
+
+final class BenchmarkFixtures {
+
+    private BenchmarkFixtures() {
+    }
+
+    // The ParserService Spring would build, without starting a context.
+    static ParserService parserService() {
+        return new ParserService(new MapperRegistry(List.of(
+                new CodeScanMapper(), new DependabotMapper(), new SecretScanMapper(), new SarifMapper())));
+    }
+}
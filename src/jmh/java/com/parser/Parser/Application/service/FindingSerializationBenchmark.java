@@ -0,0 +1,40 @@
+package com.parser.Parser.Application.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.parser.Parser.Application.model.Finding;
+import com.parser.Parser.Application.model.ToolType;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serializes a parsed Finding the way the ES client does (Jackson), to track the cost of
+ * writing additionalData back out.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FindingSerializationBenchmark {
+
+    @Param({"CODESCAN", "DEPENDABOT", "SECRETSCAN", "SARIF"})
+    public ToolType toolType;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private Finding finding;
+
+    @Setup
+    public void setUp() {
+        List<Finding> findings = BenchmarkFixtures.parserService().parse(toolType, new String(SyntheticAlerts.generate(toolType, 1)));
+        finding = findings.get(0);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(finding);
+    }
+}
@@ -0,0 +1,29 @@
+package com.parser.Parser.Application.service;
+
+import com.parser.Parser.Application.model.Severity;
+import com.parser.Parser.Application.model.Status;
+import com.parser.Parser.Application.model.ToolType;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HashBenchmark {
+
+    private final String severityStatus = Severity.HIGH + "-" + Status.OPEN;
+
+    @Benchmark
+    public String severityStatusHash() {
+        return ElasticsearchService.computeHash(severityStatus);
+    }
+
+    @Benchmark
+    public String fingerprint() {
+        return FindingFingerprint.of(ToolType.CODESCAN, "12345", "js/sql-injection");
+    }
+}
@@ -0,0 +1,61 @@
+package com.parser.Parser.Application.service;
+
+import com.parser.Parser.Application.model.Finding;
+import com.parser.Parser.Application.model.ToolType;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Streaming parse of a whole export, per tool type. Score is exports per second; divide by
+ * the alerts parameter for alerts per second. Use -p alerts=1000000 for the largest files.
+ * The export is generated into a temp file and streamed from it as in production, so the heap
+ * (and -prof gc) only sees what the parser itself allocates.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParserBenchmark {
+
+    @Param({"CODESCAN", "DEPENDABOT", "SECRETSCAN", "SARIF"})
+    public ToolType toolType;
+
+    @Param({"1", "1000", "100000"})
+    public int alerts;
+
+    private ParserService parserService;
+    private Path export;
+
+    @Setup
+    public void setUp() {
+        parserService = BenchmarkFixtures.parserService();
+        export = SyntheticAlerts.generateFile(toolType, alerts);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(export);
+    }
+
+    @Benchmark
+    public int parse(Blackhole bh) throws IOException {
+        int count = 0;
+        try (InputStream in = ScanInputStreams.open(export);
+             FindingIterator it = parserService.stream(toolType, in)) {
+            while (it.hasNext()) {
+                Finding f = it.next();
+                bh.consume(f);
+                count++;
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,261 @@
+package com.parser.Parser.Application.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.parser.Parser.Application.model.ToolType;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Generates GitHub-shaped alert arrays for the benchmarks. Rules, advisories and secret types are
+ * drawn from small pools, as in real exports where the same rule repeats across many alerts.
+ * SARIF is generated as a single-run log whose results point into the driver's rules table.
+ */
+public final class SyntheticAlerts {
+
+    private static final String[] CODESCAN_RULES = {
+            "js/xss", "js/sql-injection", "js/path-injection", "js/regex-injection", "js/reflected-xss",
+            "java/ssrf", "java/unsafe-deserialization", "java/xxe", "py/command-line-injection", "py/weak-crypto"
+    };
+    private static final String[] SEVERITIES = {"critical", "high", "medium", "low"};
+    private static final String[] PACKAGES = {"lodash", "minimist", "axios", "jackson-databind", "log4j-core", "urllib3", "requests"};
+    private static final String[] SECRET_TYPES = {"github_personal_access_token", "aws_access_key_id", "slack_incoming_webhook_url", "stripe_api_key"};
+
+    private static final JsonFactory FACTORY = new JsonFactory();
+
+    private SyntheticAlerts() {
+    }
+
+    // For small fixtures; large exports should go through generateFile.
+    public static byte[] generate(ToolType toolType, int count) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            write(toolType, count, out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    // Writes the export to a temp file, deleted on exit, so even a 1M alert export is never held in memory.
+    public static Path generateFile(ToolType toolType, int count) {
+        try {
+            Path file = Files.createTempFile("synthetic-" + toolType.name().toLowerCase(Locale.ROOT) + "-" + count + "-", ".json");
+            file.toFile().deleteOnExit();
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(file), 64 * 1024)) {
+                write(toolType, count, out);
+            }
+            return file;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void write(ToolType toolType, int count, OutputStream out) throws IOException {
+        Random random = new Random(42);
+        try (JsonGenerator gen = FACTORY.createGenerator(out)) {
+            if (toolType == ToolType.SARIF) {
+                writeSarifLog(gen, count, random);
+                return;
+            }
+            gen.writeStartArray();
+            for (int i = 1; i <= count; i++) {
+                switch (toolType) {
+                    case CODESCAN -> writeCodeScan(gen, i, random);
+                    case DEPENDABOT -> writeDependabot(gen, i, random);
+                    case SECRETSCAN -> writeSecretScan(gen, i, random);
+                    default -> throw new IllegalArgumentException("No generator for " + toolType);
+                }
+            }
+            gen.writeEndArray();
+        }
+    }
+
+    private static void writeCodeScan(JsonGenerator gen, int number, Random random) throws IOException {
+        int ruleIndex = random.nextInt(CODESCAN_RULES.length);
+        String rule = CODESCAN_RULES[ruleIndex];
+        gen.writeStartObject();
+        gen.writeNumberField("number", number);
+        gen.writeStringField("created_at", "2024-05-01T10:15:30Z");
+        gen.writeStringField("url", "https://api.github.com/repos/acme/monorepo/code-scanning/alerts/" + number);
+        gen.writeStringField("html_url", "https://github.com/acme/monorepo/security/code-scanning/" + number);
+        String state = random.nextInt(10) < 8 ? "open" : random.nextBoolean() ? "dismissed" : "fixed";
+        gen.writeStringField("state", state);
+        if ("dismissed".equals(state)) {
+            gen.writeStringField("dismissed_reason", random.nextBoolean() ? "false positive" : "won't fix");
+        } else {
+            gen.writeNullField("dismissed_reason");
+        }
+        gen.writeObjectFieldStart("rule");
+        gen.writeStringField("id", rule);
+        gen.writeStringField("severity", "error");
+        gen.writeStringField("security_severity_level", SEVERITIES[ruleIndex % SEVERITIES.length]);
+        gen.writeStringField("name", rule);
+        gen.writeStringField("description", "Finding reported by rule " + rule);
+        gen.writeStringField("full_description", "Using untrusted input in a sensitive sink allows an attacker to control behaviour. Rule " + rule + ".");
+        gen.writeArrayFieldStart("tags");
+        gen.writeString("security");
+        gen.writeString("external/cwe/cwe-" + (20 + ruleIndex * 7));
+        gen.writeString("external/cwe/cwe-" + (79 + ruleIndex));
+        gen.writeEndArray();
+        gen.writeEndObject();
+        gen.writeObjectFieldStart("tool");
+        gen.writeStringField("name", "CodeQL");
+        gen.writeStringField("version", "2.16.1");
+        gen.writeEndObject();
+        gen.writeObjectFieldStart("most_recent_instance");
+        gen.writeStringField("ref", "refs/heads/main");
+        gen.writeStringField("state", state);
+        gen.writeObjectFieldStart("location");
+        gen.writeStringField("path", "services/module-" + random.nextInt(200) + "/src/main/Handler" + random.nextInt(50) + ".java");
+        int line = 1 + random.nextInt(2000);
+        gen.writeNumberField("start_line", line);
+        gen.writeNumberField("end_line", line + random.nextInt(5));
+        gen.writeNumberField("start_column", 1 + random.nextInt(80));
+        gen.writeNumberField("end_column", 1 + random.nextInt(120));
+        gen.writeEndObject();
+        gen.writeObjectFieldStart("message");
+        gen.writeStringField("text", "This value depends on a user-provided value.");
+        gen.writeEndObject();
+        gen.writeEndObject();
+        gen.writeEndObject();
+    }
+
+    private static void writeDependabot(JsonGenerator gen, int number, Random random) throws IOException {
+        int pkg = random.nextInt(PACKAGES.length);
+        String severity = SEVERITIES[pkg % SEVERITIES.length];
+        gen.writeStartObject();
+        gen.writeNumberField("number", number);
+        String state = random.nextInt(10) < 8 ? "open" : random.nextBoolean() ? "dismissed" : "fixed";
+        gen.writeStringField("state", state);
+        if ("dismissed".equals(state)) {
+            gen.writeStringField("dismissed_reason", random.nextBoolean() ? "tolerable_risk" : "inaccurate");
+        } else {
+            gen.writeNullField("dismissed_reason");
+        }
+        gen.writeObjectFieldStart("dependency");
+        gen.writeObjectFieldStart("package");
+        gen.writeStringField("ecosystem", "npm");
+        gen.writeStringField("name", PACKAGES[pkg]);
+        gen.writeEndObject();
+        gen.writeStringField("manifest_path", "apps/app-" + random.nextInt(100) + "/package-lock.json");
+        gen.writeStringField("scope", "runtime");
+        gen.writeEndObject();
+        gen.writeObjectFieldStart("security_advisory");
+        gen.writeStringField("ghsa_id", "GHSA-" + Integer.toHexString(1000 + pkg) + "-abcd-efgh");
+        gen.writeStringField("cve_id", "CVE-2023-" + (10000 + pkg));
+        gen.writeStringField("summary", "Prototype pollution in " + PACKAGES[pkg]);
+        gen.writeStringField("description", "Versions of " + PACKAGES[pkg] + " before the patched release are vulnerable to prototype pollution.");
+        gen.writeStringField("severity", severity);
+        gen.writeObjectFieldStart("cvss");
+        gen.writeNumberField("score", 4.0 + pkg);
+        gen.writeStringField("vector_string", "CVSS:3.1/AV:N/AC:L/PR:N/UI:N/S:U/C:H/I:H/A:H");
+        gen.writeEndObject();
+        gen.writeArrayFieldStart("cwes");
+        gen.writeStartObject();
+        gen.writeStringField("cwe_id", "CWE-" + (1321 + pkg));
+        gen.writeStringField("name", "Improperly Controlled Modification of Object Prototype Attributes");
+        gen.writeEndObject();
+        gen.writeEndArray();
+        gen.writeEndObject();
+        gen.writeStringField("url", "https://api.github.com/repos/acme/monorepo/dependabot/alerts/" + number);
+        gen.writeStringField("html_url", "https://github.com/acme/monorepo/security/dependabot/" + number);
+        gen.writeStringField("created_at", "2024-05-01T10:15:30Z");
+        gen.writeEndObject();
+    }
+
+    private static void writeSecretScan(JsonGenerator gen, int number, Random random) throws IOException {
+        String type = SECRET_TYPES[random.nextInt(SECRET_TYPES.length)];
+        gen.writeStartObject();
+        gen.writeNumberField("number", number);
+        gen.writeStringField("created_at", "2024-05-01T10:15:30Z");
+        gen.writeStringField("url", "https://api.github.com/repos/acme/monorepo/secret-scanning/alerts/" + number);
+        gen.writeStringField("html_url", "https://github.com/acme/monorepo/security/secret-scanning/" + number);
+        gen.writeStringField("state", random.nextInt(10) < 8 ? "open" : "resolved");
+        gen.writeNullField("resolution");
+        gen.writeStringField("secret_type", type);
+        gen.writeStringField("secret_type_display_name", type.replace('_', ' '));
+        gen.writeStringField("secret", "tok_" + Long.toHexString(random.nextLong()));
+        gen.writeStringField("validity", "active");
+        gen.writeEndObject();
+    }
+
+    private static void writeSarifLog(JsonGenerator gen, int count, Random random) throws IOException {
+        gen.writeStartObject();
+        gen.writeStringField("version", "2.1.0");
+        gen.writeStringField("$schema", "https://json.schemastore.org/sarif-2.1.0.json");
+        gen.writeArrayFieldStart("runs");
+        gen.writeStartObject();
+        gen.writeObjectFieldStart("tool");
+        gen.writeObjectFieldStart("driver");
+        gen.writeStringField("name", "CodeQL");
+        gen.writeStringField("semanticVersion", "2.16.1");
+        gen.writeArrayFieldStart("rules");
+        for (int r = 0; r < CODESCAN_RULES.length; r++) {
+            String rule = CODESCAN_RULES[r];
+            gen.writeStartObject();
+            gen.writeStringField("id", rule);
+            gen.writeStringField("name", rule);
+            gen.writeObjectFieldStart("shortDescription");
+            gen.writeStringField("text", "Finding reported by rule " + rule);
+            gen.writeEndObject();
+            gen.writeObjectFieldStart("fullDescription");
+            gen.writeStringField("text", "Using untrusted input in a sensitive sink allows an attacker to control behaviour. Rule " + rule + ".");
+            gen.writeEndObject();
+            gen.writeObjectFieldStart("defaultConfiguration");
+            gen.writeStringField("level", "error");
+            gen.writeEndObject();
+            gen.writeStringField("helpUri", "https://codeql.github.com/codeql-query-help/" + rule);
+            gen.writeObjectFieldStart("properties");
+            gen.writeStringField("security-severity", String.valueOf(3.5 + r * 0.6));
+            gen.writeArrayFieldStart("tags");
+            gen.writeString("security");
+            gen.writeString("external/cwe/cwe-" + (20 + r * 7));
+            gen.writeEndArray();
+            gen.writeEndObject();
+            gen.writeEndObject();
+        }
+        gen.writeEndArray();
+        gen.writeEndObject();
+        gen.writeEndObject();
+        gen.writeArrayFieldStart("results");
+        for (int i = 1; i <= count; i++) {
+            int ruleIndex = random.nextInt(CODESCAN_RULES.length);
+            gen.writeStartObject();
+            gen.writeStringField("ruleId", CODESCAN_RULES[ruleIndex]);
+            gen.writeNumberField("ruleIndex", ruleIndex);
+            gen.writeObjectFieldStart("message");
+            gen.writeStringField("text", "This value depends on a user-provided value.");
+            gen.writeEndObject();
+            gen.writeArrayFieldStart("locations");
+            gen.writeStartObject();
+            gen.writeObjectFieldStart("physicalLocation");
+            gen.writeObjectFieldStart("artifactLocation");
+            gen.writeStringField("uri", "services/module-" + random.nextInt(200) + "/src/main/Handler" + random.nextInt(50) + ".java");
+            gen.writeEndObject();
+            gen.writeObjectFieldStart("region");
+            gen.writeNumberField("startLine", 1 + random.nextInt(2000));
+            gen.writeNumberField("startColumn", 1 + random.nextInt(80));
+            gen.writeEndObject();
+            gen.writeEndObject();
+            gen.writeEndObject();
+            gen.writeEndArray();
+            gen.writeObjectFieldStart("partialFingerprints");
+            gen.writeStringField("primaryLocationLineHash", Long.toHexString(random.nextLong()) + ":" + i);
+            gen.writeEndObject();
+            gen.writeEndObject();
+        }
+        gen.writeEndArray();
+        gen.writeEndObject();
+        gen.writeEndArray();
+        gen.writeEndObject();
+    }
+}
@@ -1,7 +1,14 @@
 package com.parser.Parser.Application.config;
 
+import co.elastic.clients.elasticsearch.ElasticsearchAsyncClient;
 import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._helpers.bulk.BulkIngester;
+import co.elastic.clients.elasticsearch._helpers.bulk.BulkListener;
+import co.elastic.clients.elasticsearch.core.BulkRequest;
+import co.elastic.clients.elasticsearch.core.BulkResponse;
+import co.elastic.clients.elasticsearch.core.bulk.BulkResponseItem;
 import co.elastic.clients.json.jackson.JacksonJsonpMapper;
+import co.elastic.clients.transport.ElasticsearchTransport;
 import co.elastic.clients.transport.rest_client.RestClientTransport;
 import org.apache.http.HttpHost;
 import org.elasticsearch.client.RestClient;
@@ -9,20 +16,83 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
 @Configuration
 public class ElasticsearchConfig {
 
     @Value("${app.elasticsearch.uris}")
     private String esUris;
 
+    @Value("${app.elasticsearch.bulk.max-actions:1000}")
+    private int bulkMaxActions;
+
+    @Value("${app.elasticsearch.bulk.max-bytes:5242880}")
+    private long bulkMaxBytes;
+
+    @Value("${app.elasticsearch.bulk.flush-interval-ms:1000}")
+    private long bulkFlushIntervalMs;
+
     @Bean
     public RestClient restClient() {
         return RestClient.builder(HttpHost.create(esUris)).build();
     }
 
     @Bean
-    public ElasticsearchClient elasticsearchClient(RestClient restClient) {
-        RestClientTransport transport = new RestClientTransport(restClient, new JacksonJsonpMapper());
+    public ElasticsearchTransport elasticsearchTransport(RestClient restClient) {
+        return new RestClientTransport(restClient, new JacksonJsonpMapper());
+    }
+
+    @Bean
+    public ElasticsearchClient elasticsearchClient(ElasticsearchTransport transport) {
         return new ElasticsearchClient(transport);
     }
-}
\ No newline at end of file
+
+    // Shares the transport, and so the connection pool, with the blocking client
+    @Bean
+    public ElasticsearchAsyncClient elasticsearchAsyncClient(ElasticsearchTransport transport) {
+        return new ElasticsearchAsyncClient(transport);
+    }
+
+    // Each queued operation carries a future that is completed with its document id,
+    // or exceptionally with the item error, once the bulk request containing it returns.
+    @Bean(destroyMethod = "close")
+    public BulkIngester<CompletableFuture<String>> bulkIngester(ElasticsearchClient elasticsearchClient) {
+        return BulkIngester.of(b -> b
+                .client(elasticsearchClient)
+                .maxOperations(bulkMaxActions)
+                .maxSize(bulkMaxBytes)
+                .flushInterval(bulkFlushIntervalMs, TimeUnit.MILLISECONDS)
+                .listener(new FutureCompletingListener()));
+    }
+
+    private static class FutureCompletingListener implements BulkListener<CompletableFuture<String>> {
+
+        @Override
+        public void beforeBulk(long executionId, BulkRequest request, List<CompletableFuture<String>> contexts) {
+        }
+
+        @Override
+        public void afterBulk(long executionId, BulkRequest request, List<CompletableFuture<String>> contexts, BulkResponse response) {
+            for (int i = 0; i < contexts.size(); i++) {
+                BulkResponseItem item = response.items().get(i);
+                CompletableFuture<String> future = contexts.get(i);
+                if (item.error() != null) {
+                    future.completeExceptionally(new IOException(item.error().type() + ": " + item.error().reason()));
+                } else {
+                    future.complete(item.id());
+                }
+            }
+        }
+
+        @Override
+        public void afterBulk(long executionId, BulkRequest request, List<CompletableFuture<String>> contexts, Throwable failure) {
+            for (CompletableFuture<String> future : contexts) {
+                future.completeExceptionally(failure);
+            }
+        }
+    }
+}
@@ -1,23 +1,28 @@
 package com.parser.Parser.Application.config;
 
 import com.parser.Parser.Application.event.ParseRequestEvent;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.clients.producer.ProducerConfig;
 import org.apache.kafka.common.serialization.StringDeserializer;
 import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.annotation.EnableKafka;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.core.*;
+import org.springframework.kafka.listener.ContainerProperties;
 import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
 import org.springframework.kafka.listener.DefaultErrorHandler;
 import org.springframework.kafka.support.serializer.JsonDeserializer;
 import org.springframework.kafka.support.serializer.JsonSerializer;
+import org.springframework.kafka.transaction.KafkaTransactionManager;
 import org.springframework.util.backoff.FixedBackOff;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Properties;
 
 @Configuration
 @EnableKafka
@@ -25,6 +30,35 @@ public class KafkaConfig {
 
     private static final String BOOTSTRAP = "localhost:9092";
 
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.kafka.parser.concurrency:1}")
+    private int parserConcurrency;
+
+    @Value("${app.kafka.parser.batch-max-records:50}")
+    private int batchMaxRecords;
+
+    @Value("${app.kafka.producer.linger-ms:10}")
+    private int producerLingerMs;
+
+    @Value("${app.kafka.producer.batch-size:65536}")
+    private int producerBatchSize;
+
+    @Value("${app.kafka.producer.compression-type:lz4}")
+    private String producerCompressionType;
+
+    @Value("${app.kafka.producer.idempotence:true}")
+    private boolean producerIdempotence;
+
+    // When set, acks and runbook events of the batch listener are published in one Kafka transaction
+    // together with the batch offsets. Empty disables transactions.
+    @Value("${app.kafka.producer.transactional-id-prefix:}")
+    private String transactionalIdPrefix;
+
+    public KafkaConfig(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
     @Bean
     public ProducerFactory<String, Object> genericProducerFactory() {
         Map<String, Object> props = new HashMap<>();
@@ -33,12 +67,36 @@ public class KafkaConfig {
         props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
         // Turn off type headers so we don't embed class name
         props.put(JsonSerializer.ADD_TYPE_INFO_HEADERS, false);
-        return new DefaultKafkaProducerFactory<>(props);
+        applyProducerTuning(props);
+        DefaultKafkaProducerFactory<String, Object> factory = new DefaultKafkaProducerFactory<>(props);
+        if (transactionsEnabled()) {
+            factory.setTransactionIdPrefix(transactionalIdPrefix);
+        }
+        factory.addListener(new MicrometerProducerListener<>(meterRegistry));
+        return factory;
     }
 
     @Bean
     public KafkaTemplate<String, Object> genericKafkaTemplate() {
-        return new KafkaTemplate<>(genericProducerFactory());
+        KafkaTemplate<String, Object> template = new KafkaTemplate<>(genericProducerFactory());
+        // Sends from the per-record listener and the dead letter recoverer run outside a transaction
+        template.setAllowNonTransactional(true);
+        return template;
+    }
+
+    private boolean transactionsEnabled() {
+        return !transactionalIdPrefix.isBlank();
+    }
+
+    // Small lingering batches, compression and idempotent retries for every producer
+    private void applyProducerTuning(Map<String, Object> props) {
+        props.put(ProducerConfig.LINGER_MS_CONFIG, producerLingerMs);
+        props.put(ProducerConfig.BATCH_SIZE_CONFIG, producerBatchSize);
+        props.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, producerCompressionType);
+        props.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, producerIdempotence);
+        if (producerIdempotence) {
+            props.put(ProducerConfig.ACKS_CONFIG, "all");
+        }
     }
 
     @Bean
@@ -54,11 +112,14 @@ public class KafkaConfig {
         props.put(JsonDeserializer.TRUSTED_PACKAGES, "*");
 
         JsonDeserializer<ParseRequestEvent> deserializer = new JsonDeserializer<>(ParseRequestEvent.class);
-        return new DefaultKafkaConsumerFactory<>(
+        DefaultKafkaConsumerFactory<String, ParseRequestEvent> factory = new DefaultKafkaConsumerFactory<>(
                 props,
                 new StringDeserializer(),
                 deserializer
         );
+        // Publishes the consumer client metrics, including records-lag-max, to Micrometer
+        factory.addListener(new MicrometerConsumerListener<>(meterRegistry));
+        return factory;
     }
 
     @Bean
@@ -66,6 +127,29 @@ public class KafkaConfig {
         ConcurrentKafkaListenerContainerFactory<String, ParseRequestEvent> factory =
                 new ConcurrentKafkaListenerContainerFactory<>();
         factory.setConsumerFactory(parseRequestEventConsumerFactory());
+        // Jobs complete out of order on the ParseJobExecutor; async acks keep commits in offset order
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+        factory.getContainerProperties().setAsyncAcks(true);
+        factory.setConcurrency(parserConcurrency);
+        return factory;
+    }
+
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, ParseRequestEvent> parseRequestEventBatchListenerContainerFactory() {
+        ConcurrentKafkaListenerContainerFactory<String, ParseRequestEvent> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(parseRequestEventConsumerFactory());
+        Properties consumerOverrides = new Properties();
+        consumerOverrides.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, batchMaxRecords);
+        factory.getContainerProperties().setKafkaConsumerProperties(consumerOverrides);
+        // Offsets of a batch are committed only after the listener has returned
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.BATCH);
+        if (transactionsEnabled()) {
+            // The listener runs inside a producer transaction that also carries the batch offsets
+            factory.getContainerProperties().setKafkaAwareTransactionManager(new KafkaTransactionManager<>(genericProducerFactory()));
+        }
+        factory.setBatchListener(true);
+        factory.setConcurrency(parserConcurrency);
         return factory;
     }
 
@@ -76,7 +160,10 @@ public class KafkaConfig {
         configProps.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
         // Use StringSerializer for value as well
         configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
-        return new DefaultKafkaProducerFactory<>(configProps);
+        applyProducerTuning(configProps);
+        DefaultKafkaProducerFactory<String, String> factory = new DefaultKafkaProducerFactory<>(configProps);
+        factory.addListener(new MicrometerProducerListener<>(meterRegistry));
+        return factory;
     }
     @Bean
     public KafkaTemplate<String, String> eventKafkaTemplate() {
@@ -0,0 +1,102 @@
+package com.parser.Parser.Application.consumer;
+
+import com.parser.Parser.Application.event.ParseRequestEvent;
+import com.parser.Parser.Application.service.IngestSummary;
+import com.parser.Parser.Application.service.ParseJob;
+import com.parser.Parser.Application.service.ParseJobExecutor;
+import com.parser.Parser.Application.service.ParseJobService;
+import com.parser.Parser.Application.service.SharedBulkWriter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Batch listener mode (app.kafka.parser.batch-enabled=true). The files of a poll are parsed
+ * concurrently on the ParseJobExecutor and streamed batch by batch into one shared bulk writer per
+ * tenant index, so files of the same index share bulk requests while no file is ever held whole.
+ * Each event gets its own ack: SUCCESS once all of its findings are indexed, FAIL if it could not
+ * be parsed or any of its findings was rejected. A file that was already ingested, and has not
+ * changed on disk since, is acked without being read. Nothing is acked, and the batch offsets are not committed, until every
+ * file has finished; a bulk request that fails as a whole is rethrown so the batch is redelivered.
+ * With app.kafka.producer.transactional-id-prefix set, the acks, runbook events and batch offsets
+ * are committed in one Kafka transaction.
+ */
+@Component
+@ConditionalOnProperty(name = "app.kafka.parser.batch-enabled", havingValue = "true")
+public class ParserBatchConsumer {
+    private final ParseJobService parseJobService;
+    private final ParseJobExecutor parseJobExecutor;
+
+    private record Written(IngestSummary summary, List<String> ids) {
+    }
+
+    public ParserBatchConsumer(ParseJobService parseJobService, ParseJobExecutor parseJobExecutor) {
+        this.parseJobService = parseJobService;
+        this.parseJobExecutor = parseJobExecutor;
+    }
+
+    @KafkaListener(
+            id = "${app.parser.scheduler.listener-id:parseRequestListener}",
+            idIsGroup = false,
+            topics = "${app.kafka.topics.parser}",
+            groupId = "${spring.kafka.consumer.group-id}",
+            containerFactory = "parseRequestEventBatchListenerContainerFactory"
+    )
+    public void consumeParseRequestEvents(List<ParseRequestEvent> events) {
+        Map<String, SharedBulkWriter> writers = new LinkedHashMap<>();
+        Map<ParseJob, CompletableFuture<Written>> running = new LinkedHashMap<>();
+        for (ParseRequestEvent event : events) {
+            ParseJob job = parseJobService.resolve(event);
+            if (job == null) {
+                continue;
+            }
+            SharedBulkWriter writer = writers.computeIfAbsent(job.findingIndex(), parseJobService::sharedWriter);
+            running.put(job, parseJobExecutor.submit(job.tenantId(), () -> {
+                if (parseJobService.alreadyIngested(job)) {
+                    return null;
+                }
+                List<String> ids = new ArrayList<>();
+                return new Written(parseJobService.ingestShared(job, writer, ids), ids);
+            }));
+        }
+
+        Map<ParseJob, Written> written = new HashMap<>();
+        Set<ParseJob> failed = new HashSet<>();
+        for (Map.Entry<ParseJob, CompletableFuture<Written>> entry : running.entrySet()) {
+            try {
+                written.put(entry.getKey(), entry.getValue().join());
+            } catch (CompletionException e) {
+                System.err.println("Failed to ingest " + entry.getKey().file() + ": " + e.getCause());
+                failed.add(entry.getKey());
+            }
+        }
+
+        for (Map.Entry<String, SharedBulkWriter> entry : writers.entrySet()) {
+            Throwable failure = entry.getValue().failure();
+            if (failure != null) {
+                Throwable cause = failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure;
+                throw cause instanceof IOException io ? new UncheckedIOException(io) : new IllegalStateException("Index write failed for " + entry.getKey(), cause);
+            }
+        }
+
+        for (ParseJob job : running.keySet()) {
+            if (failed.contains(job)) {
+                parseJobService.fail(job.eventId());
+                continue;
+            }
+            Written result = written.get(job);
+            if (result == null) {
+                parseJobService.skip(job);
+                continue;
+            }
+            parseJobService.complete(job, result.ids());
+            parseJobService.markIngested(job, result.summary().contentDigest());
+        }
+    }
+}
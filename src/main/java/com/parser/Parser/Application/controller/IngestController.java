@@ -0,0 +1,64 @@
+package com.parser.Parser.Application.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.parser.Parser.Application.model.ToolType;
+import com.parser.Parser.Application.service.IngestSummary;
+import com.parser.Parser.Application.service.ParseJob;
+import com.parser.Parser.Application.service.ParseJobExecutor;
+import com.parser.Parser.Application.service.ParseJobService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Ingests a scan export posted as the request body, as an alternative to writing it to the shared
+ * volume and sending a ParseRequestEvent. The body is streamed into the parser and bulk indexer
+ * as it arrives (plain, gzip or zstd; chunked uploads are fine) and is never buffered whole.
+ * The job runs on the ParseJobExecutor like any other, and emits the same ack and runbook events.
+ */
+@RestController
+@RequestMapping("/tenants")
+public class IngestController {
+
+    private final ParseJobService parseJobService;
+    private final ParseJobExecutor parseJobExecutor;
+
+    public IngestController(ParseJobService parseJobService, ParseJobExecutor parseJobExecutor) {
+        this.parseJobService = parseJobService;
+        this.parseJobExecutor = parseJobExecutor;
+    }
+
+    @PostMapping("/{tenantId}/scans/{toolType}")
+    public ResponseEntity<?> ingest(@PathVariable Integer tenantId,
+                                    @PathVariable String toolType,
+                                    @RequestParam(defaultValue = "false") boolean reconcile,
+                                    InputStream body) {
+        ToolType type;
+        try {
+            type = ToolType.valueOf(toolType.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Unknown tool type: " + toolType));
+        }
+        ParseJob job = parseJobService.uploadJob(tenantId, type, reconcile);
+        if (job == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "Unknown tenant: " + tenantId));
+        }
+        try {
+            IngestSummary summary = parseJobExecutor.submit(tenantId, () -> parseJobService.processUpload(job, body)).join();
+            return ResponseEntity.ok(summary);
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause() instanceof UncheckedIOException io ? io.getCause() : e.getCause();
+            if (cause instanceof JsonProcessingException) {
+                return ResponseEntity.badRequest().body(Map.of("eventId", job.eventId(), "error", "Malformed scan export: " + cause.getMessage()));
+            }
+            cause.printStackTrace();
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of("eventId", job.eventId(), "error", String.valueOf(cause.getMessage())));
+        }
+    }
+}
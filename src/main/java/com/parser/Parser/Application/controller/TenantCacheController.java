@@ -0,0 +1,43 @@
+package com.parser.Parser.Application.controller;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.parser.Parser.Application.service.TenantCache;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/tenants")
+public class TenantCacheController {
+
+    private final TenantCache tenantCache;
+
+    public TenantCacheController(TenantCache tenantCache) {
+        this.tenantCache = tenantCache;
+    }
+
+    @DeleteMapping("/{tenantId}/cache")
+    public ResponseEntity<Void> invalidate(@PathVariable Integer tenantId) {
+        tenantCache.invalidate(tenantId);
+        return ResponseEntity.noContent().build();
+    }
+
+    @DeleteMapping("/cache")
+    public ResponseEntity<Void> invalidateAll() {
+        tenantCache.invalidateAll();
+        return ResponseEntity.noContent().build();
+    }
+
+    @GetMapping("/cache/stats")
+    public Map<String, Object> stats() {
+        CacheStats stats = tenantCache.stats();
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("hits", stats.hitCount());
+        body.put("misses", stats.missCount());
+        body.put("hitRate", stats.hitRate());
+        body.put("evictions", stats.evictionCount());
+        return body;
+    }
+}
@@ -1,12 +1,25 @@
 package com.parser.Parser.Application.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.UncheckedIOException;
 import java.time.Instant;
 import java.util.Map;
 
 public class Finding {
 
+    private static final ObjectMapper ADDITIONAL_DATA_MAPPER = new ObjectMapper();
+
     private String id;
     private ToolType toolType;
+    // Name of the reporting tool where one tool type covers several tools (the SARIF driver name).
+    private String toolName;
     private String title;
     private String description;
     private Status status;
@@ -17,6 +30,9 @@ public class Finding {
     private Double cvss;
     private String location;
     private Map<String, Object> additionalData;
+    // The alert as raw JSON; written verbatim into the ES document and only turned into
+    // additionalData when something reads the map.
+    private String rawAdditionalData;
     private String updatedAt;
     private String ticketId;
 
@@ -120,6 +136,14 @@ public class Finding {
         this.cvss = cvss;
     }
 
+    public String getToolName() {
+        return toolName;
+    }
+
+    public void setToolName(String toolName) {
+        this.toolName = toolName;
+    }
+
     public String getLocation() {
         return location;
     }
@@ -128,12 +152,46 @@ public class Finding {
         this.location = location;
     }
 
+    @JsonIgnore
     public Map<String, Object> getAdditionalData() {
+        if (additionalData == null && rawAdditionalData != null) {
+            try {
+                additionalData = ADDITIONAL_DATA_MAPPER.readValue(rawAdditionalData, new TypeReference<Map<String, Object>>() {});
+            } catch (JsonProcessingException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
         return additionalData;
     }
 
+    @JsonIgnore
     public void setAdditionalData(Map<String, Object> additionalData) {
         this.additionalData = additionalData;
+        this.rawAdditionalData = null;
+    }
+
+    @JsonIgnore
+    public void setRawAdditionalData(String rawAdditionalData) {
+        this.rawAdditionalData = rawAdditionalData;
+        this.additionalData = null;
+    }
+
+    @JsonProperty("additionalData")
+    @JsonRawValue
+    public String getRawAdditionalData() {
+        if (rawAdditionalData == null && additionalData != null) {
+            try {
+                return ADDITIONAL_DATA_MAPPER.writeValueAsString(additionalData);
+            } catch (JsonProcessingException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return rawAdditionalData;
+    }
+
+    @JsonProperty("additionalData")
+    public void setAdditionalDataNode(JsonNode node) {
+        setRawAdditionalData(node == null || node.isNull() ? null : node.toString());
     }
 
     @Override
@@ -141,6 +199,7 @@ public class Finding {
         return "Finding{" +
                 "id='" + id + '\'' +
                 ", toolType=" + toolType +
+                ", toolName='" + toolName + '\'' +
                 ", title='" + title + '\'' +
                 ", description='" + description + '\'' +
                 ", status=" + status +
@@ -150,7 +209,7 @@ public class Finding {
                 ", cwe='" + cwe + '\'' +
                 ", cvss=" + cvss +
                 ", location='" + location + '\'' +
-                ", additionalData=" + additionalData +
+                ", additionalData=" + (additionalData != null ? additionalData : rawAdditionalData) +
                 ", updatedAt='" + updatedAt + '\'' +
                 ", ticketId='" + ticketId + '\'' +
                 '}';
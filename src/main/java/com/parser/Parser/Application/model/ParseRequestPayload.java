@@ -5,6 +5,8 @@ public class ParseRequestPayload {
     private  String filePath;
     private Integer tenantId; // or Long, depending on your system
     private String tooltype;
+    // Full re-scan: findings of this tool that are missing from the file get closed
+    private boolean reconcile;
 
     public ParseRequestPayload(){};
 
@@ -22,6 +24,14 @@ public class ParseRequestPayload {
         this.tooltype = tooltype;
     }
 
+    public boolean isReconcile() {
+        return reconcile;
+    }
+
+    public void setReconcile(boolean reconcile) {
+        this.reconcile = reconcile;
+    }
+
     public String getFilePath() {
         return filePath;
     }
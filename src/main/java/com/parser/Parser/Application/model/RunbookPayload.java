@@ -8,6 +8,14 @@ public class RunbookPayload {
     private Integer tenantId;
     private List<String> findingIds;
     String triggerType;
+    // Large finding sets are published as several chunks sharing a correlationId. chunkSequence
+    // starts at 0; totalChunks is only known, and set, on the chunk with lastChunk=true.
+    private String correlationId;
+    private Integer chunkSequence;
+    private Integer totalChunks;
+    private boolean lastChunk;
+    // Set on the last chunk when the file failed to ingest; the chunks before it may be incomplete.
+    private boolean failed;
     // Constructors
     public RunbookPayload() {}
 
@@ -31,5 +39,20 @@ public class RunbookPayload {
     public String getTriggerType() { return triggerType; }
     public void setTriggerType(String triggerType) { this.triggerType = triggerType; }
 
+    public String getCorrelationId() { return correlationId; }
+    public void setCorrelationId(String correlationId) { this.correlationId = correlationId; }
+
+    public Integer getChunkSequence() { return chunkSequence; }
+    public void setChunkSequence(Integer chunkSequence) { this.chunkSequence = chunkSequence; }
+
+    public Integer getTotalChunks() { return totalChunks; }
+    public void setTotalChunks(Integer totalChunks) { this.totalChunks = totalChunks; }
+
+    public boolean isLastChunk() { return lastChunk; }
+    public void setLastChunk(boolean lastChunk) { this.lastChunk = lastChunk; }
+
+    public boolean isFailed() { return failed; }
+    public void setFailed(boolean failed) { this.failed = failed; }
+
 
 }
\ No newline at end of file
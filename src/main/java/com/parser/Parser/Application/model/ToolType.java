@@ -3,5 +3,6 @@ package com.parser.Parser.Application.model;
 public enum ToolType {
     CODESCAN,
     DEPENDABOT,
-    SECRETSCAN
+    SECRETSCAN,
+    SARIF
 }
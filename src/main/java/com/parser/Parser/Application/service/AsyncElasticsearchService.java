@@ -0,0 +1,161 @@
+package com.parser.Parser.Application.service;
+
+import co.elastic.clients.elasticsearch.ElasticsearchAsyncClient;
+import co.elastic.clients.elasticsearch.core.BulkRequest;
+import co.elastic.clients.elasticsearch.core.bulk.BulkResponseItem;
+import co.elastic.clients.elasticsearch.core.mget.MultiGetResponseItem;
+import com.parser.Parser.Application.model.Finding;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Supplier;
+
+/**
+ * Non-blocking counterpart of ElasticsearchService built on ElasticsearchAsyncClient. At most
+ * max-in-flight requests are outstanding at once; callers wait for a free slot before a request
+ * is sent, so one thread can keep a whole window of requests open without flooding the cluster.
+ * Requests that take longer than timeout-ms fail with a TimeoutException and are cancelled.
+ * Continuations run on virtual threads rather than the HTTP client's I/O threads, since they may
+ * wait for a slot themselves.
+ */
+@Service
+public class AsyncElasticsearchService {
+
+    private final ElasticsearchAsyncClient esClient;
+    private final FindingDedupCache dedupCache;
+    private final IngestionMetrics metrics;
+    private final IndexTemplateManager indexTemplateManager;
+    private final Semaphore window;
+    private final long timeoutMs;
+    private final ExecutorService callbacks = Executors.newVirtualThreadPerTaskExecutor();
+
+    public AsyncElasticsearchService(ElasticsearchAsyncClient esClient, FindingDedupCache dedupCache, IngestionMetrics metrics,
+                                     IndexTemplateManager indexTemplateManager,
+                                     @Value("${app.elasticsearch.async.max-in-flight:32}") int maxInFlight,
+                                     @Value("${app.elasticsearch.async.timeout-ms:30000}") long timeoutMs) {
+        this.esClient = esClient;
+        this.dedupCache = dedupCache;
+        this.metrics = metrics;
+        this.indexTemplateManager = indexTemplateManager;
+        this.window = new Semaphore(maxInFlight);
+        this.timeoutMs = timeoutMs;
+    }
+
+    // Same contract and decisions as ElasticsearchService.upsertFindings: ids in input order, failed items null.
+    public CompletableFuture<List<String>> upsertFindings(List<Finding> newFindings, String indexName) {
+        UpsertPlan plan = new UpsertPlan(newFindings, indexName, dedupCache);
+        if (plan.resolved()) {
+            plan.recordDedup(metrics);
+            return CompletableFuture.completedFuture(plan.ids());
+        }
+        CompletableFuture<Map<String, Finding>> existing = CompletableFuture.completedFuture(Collections.emptyMap());
+        if (!plan.lookupIds().isEmpty()) {
+            existing = CompletableFuture.supplyAsync(() -> ensureIndex(indexName), callbacks).thenCompose(exists -> exists
+                    ? getFindings(plan.lookupIds(), indexName)
+                    : CompletableFuture.completedFuture(Collections.emptyMap()));
+        }
+        return existing.thenComposeAsync(found -> {
+            List<Finding> toWrite = plan.toWrite(found);
+            plan.recordDedup(metrics);
+            return bulkIndexFindings(toWrite, indexName).thenApply(plan::complete);
+        }, callbacks);
+    }
+
+    // One bulk request for the whole list. Ids line up with the input, failed items are null.
+    public CompletableFuture<List<String>> bulkIndexFindings(List<Finding> findings, String indexName) {
+        if (findings.isEmpty()) {
+            return CompletableFuture.completedFuture(new ArrayList<>());
+        }
+        BulkRequest.Builder request = new BulkRequest.Builder();
+        for (Finding finding : findings) {
+            request.operations(op -> op.index(i -> i
+                    .index(indexName)
+                    .id(finding.getId())
+                    .document(finding)));
+        }
+        BulkRequest bulk = request.build();
+        return call("bulk", () -> esClient.bulk(bulk)).thenApply(response -> {
+            List<String> ids = new ArrayList<>(findings.size());
+            int failed = 0;
+            for (BulkResponseItem item : response.items()) {
+                if (item.error() != null) {
+                    System.err.println("Failed to index finding " + item.id() + ": " + item.error().reason());
+                    ids.add(null);
+                    failed++;
+                } else {
+                    ids.add(item.id());
+                }
+            }
+            if (failed > 0) {
+                metrics.recordEsErrors("bulk", failed);
+            }
+            return ids;
+        });
+    }
+
+    // Cached after the first answer, so it is cheap to call from a continuation.
+    private boolean ensureIndex(String indexName) {
+        try {
+            return indexTemplateManager.ensureIndex(indexName);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private CompletableFuture<Map<String, Finding>> getFindings(List<String> ids, String indexName) {
+        return call("mget", () -> esClient.mget(m -> m
+                        .index(indexName)
+                        .ids(ids)
+                        .sourceIncludes("severity", "status"),
+                Finding.class))
+                .thenApply(response -> {
+                    Map<String, Finding> found = new HashMap<>();
+                    for (MultiGetResponseItem<Finding> item : response.docs()) {
+                        if (item.isResult() && item.result().found()) {
+                            found.put(item.result().id(), item.result().source());
+                        }
+                    }
+                    return found;
+                });
+    }
+
+    // Takes a window slot, sends the request and frees the slot when it completes, fails or times out.
+    private <T> CompletableFuture<T> call(String operation, Supplier<CompletableFuture<T>> request) {
+        window.acquireUninterruptibly();
+        long start = System.nanoTime();
+        CompletableFuture<T> sent;
+        try {
+            sent = request.get();
+        } catch (RuntimeException e) {
+            window.release();
+            metrics.recordEsErrors(operation, 1);
+            return CompletableFuture.failedFuture(e);
+        }
+        return sent.copy()
+                .orTimeout(timeoutMs, TimeUnit.MILLISECONDS)
+                .whenComplete((result, error) -> {
+                    window.release();
+                    metrics.recordEs(operation, System.nanoTime() - start);
+                    if (error != null) {
+                        metrics.recordEsErrors(operation, 1);
+                        if (unwrap(error) instanceof TimeoutException) {
+                            sent.cancel(true);
+                        }
+                    }
+                });
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        callbacks.shutdown();
+    }
+}
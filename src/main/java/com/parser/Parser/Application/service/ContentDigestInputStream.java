@@ -0,0 +1,86 @@
+package com.parser.Parser.Application.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * SHA-256 of the raw bytes of a scan export, computed as the parser reads them, together with the
+ * time spent waiting on those reads. Closing it leaves the wrapped stream open, so finish() can
+ * still read what the parser left behind (trailing whitespace, a compressed stream's trailer) and
+ * the digest always covers the whole input; whoever opened the wrapped stream closes it.
+ */
+class ContentDigestInputStream extends DigestInputStream {
+
+    private long readNanos;
+
+    ContentDigestInputStream(InputStream in) {
+        super(in, sha256());
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException("Error computing file digest", e);
+        }
+    }
+
+    @Override
+    public int read() throws IOException {
+        long start = System.nanoTime();
+        try {
+            return super.read();
+        } finally {
+            readNanos += System.nanoTime() - start;
+        }
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        long start = System.nanoTime();
+        try {
+            return super.read(b, off, len);
+        } finally {
+            readNanos += System.nanoTime() - start;
+        }
+    }
+
+    // Skipped bytes still have to go through the digest.
+    @Override
+    public long skip(long n) throws IOException {
+        byte[] buffer = new byte[(int) Math.min(Math.max(n, 0), 8192)];
+        long skipped = 0;
+        while (skipped < n) {
+            int read = read(buffer, 0, (int) Math.min(buffer.length, n - skipped));
+            if (read < 0) {
+                break;
+            }
+            skipped += read;
+        }
+        return skipped;
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    @Override
+    public void close() {
+    }
+
+    // Reads the rest of the input and returns the hex digest of everything read.
+    String finish() throws IOException {
+        transferTo(OutputStream.nullOutputStream());
+        return HexFormat.of().formatHex(getMessageDigest().digest());
+    }
+
+    long readNanos() {
+        return readNanos;
+    }
+}
@@ -1,12 +1,13 @@
 package com.parser.Parser.Application.service;
 
 import co.elastic.clients.elasticsearch.ElasticsearchClient;
-import co.elastic.clients.elasticsearch._types.ElasticsearchException;
-import co.elastic.clients.elasticsearch.core.IndexRequest;
-import co.elastic.clients.elasticsearch.core.IndexResponse;
-import co.elastic.clients.elasticsearch.core.SearchResponse;
-import co.elastic.clients.elasticsearch.core.search.Hit;
+import co.elastic.clients.elasticsearch._helpers.bulk.BulkIngester;
+import co.elastic.clients.elasticsearch._types.FieldValue;
+import co.elastic.clients.elasticsearch._types.query_dsl.Query;
+import co.elastic.clients.elasticsearch.core.MgetResponse;
+import co.elastic.clients.elasticsearch.core.mget.MultiGetResponseItem;
 import com.parser.Parser.Application.model.Finding;
+import com.parser.Parser.Application.model.Status;
 import com.parser.Parser.Application.model.ToolType;
 import org.springframework.stereotype.Service;
 import java.io.IOException;
@@ -14,18 +15,32 @@ import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.time.Instant;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.stream.Stream;
 
 @Service
 public class ElasticsearchService {
 
+    private static final int FLUSH_EVERY = 2000;
+
     private final ElasticsearchClient esClient;
+    private final BulkIngester<CompletableFuture<String>> bulkIngester;
+    private final FindingDedupCache dedupCache;
+    private final IngestionMetrics metrics;
+    private final IndexTemplateManager indexTemplateManager;
+    private final FindingIndexReader findingIndexReader;
 
-    public ElasticsearchService(ElasticsearchClient esClient) {
+    public ElasticsearchService(ElasticsearchClient esClient, BulkIngester<CompletableFuture<String>> bulkIngester, FindingDedupCache dedupCache, IngestionMetrics metrics, IndexTemplateManager indexTemplateManager, FindingIndexReader findingIndexReader) {
         this.esClient = esClient;
+        this.bulkIngester = bulkIngester;
+        this.dedupCache = dedupCache;
+        this.metrics = metrics;
+        this.indexTemplateManager = indexTemplateManager;
+        this.findingIndexReader = findingIndexReader;
     }
 
-    private static String computeHash(String data) {
+    static String computeHash(String data) {
         try {
             MessageDigest md = MessageDigest.getInstance("SHA-256");
             byte[] digest = md.digest(data.getBytes());
@@ -39,95 +54,191 @@ public class ElasticsearchService {
         }
     }
 
-    public String upsertFinding(Finding newFinding,String indexName) throws IOException {
-        if (!doesIndexExist(indexName)) {
-            newFinding.setUpdatedAt(Instant.now().toString());
-            return indexFinding(newFinding,indexName);
-
+    // Alerts whose digest is already cached are resolved without any ES traffic; the rest are looked
+    // up with a single mget and every new or changed finding goes out through the bulk ingester.
+    public List<String> upsertFindings(List<Finding> newFindings, String indexName) throws IOException {
+        UpsertPlan plan = new UpsertPlan(newFindings, indexName, dedupCache);
+        if (plan.resolved()) {
+            plan.recordDedup(metrics);
+            return plan.ids();
         }
-        String alertId = getAlertIdFromAdditionalData(newFinding);
-        String firstHash =  computeHash(alertId.trim() + newFinding.getTitle().trim());
-        List<Finding> existingSameToolType = findByToolType(newFinding.getToolType(),indexName);
-        Optional<Finding> matchedFinding = existingSameToolType.stream()
-                .filter(f -> {
-                    String fAlertId = getAlertIdFromAdditionalData(f);
-                    String fHash = computeHash(fAlertId.trim() + f.getTitle().trim());
-                    return fHash.equals(firstHash);
-                })
-                .findFirst();
+        Map<String, Finding> existing = Collections.emptyMap();
+        if (!plan.lookupIds().isEmpty() && indexTemplateManager.ensureIndex(indexName)) {
+            existing = getFindings(plan.lookupIds(), indexName);
+        }
+        List<Finding> toWrite = plan.toWrite(existing);
+        plan.recordDedup(metrics);
+        return plan.complete(bulkIndexFindings(toWrite, indexName));
+    }
 
-        if (matchedFinding.isPresent()) {
-            Finding found = matchedFinding.get();
-            String oldSeverityStatusHash = computeHash(found.getSeverity() + "-" + found.getStatus());
-            String newSeverityStatusHash = computeHash(newFinding.getSeverity() + "-" + newFinding.getStatus());
-            if(!oldSeverityStatusHash.equals(newSeverityStatusHash)){
-                newFinding.setUpdatedAt(Instant.now().toString());
-                newFinding.setId(found.getId());
-               return indexFinding(newFinding,indexName);
-            }
-            else {
-                return found.getId();
-            }
+    private Map<String, Finding> getFindings(List<String> ids, String indexName) throws IOException {
+        Map<String, Finding> found = new HashMap<>();
+        if (ids.isEmpty()) {
+            return found;
         }
-        else{
-            newFinding.setUpdatedAt(Instant.now().toString());
-            return indexFinding(newFinding,indexName);
+        MgetResponse<Finding> response = metrics.timeEs("mget", () -> esClient.mget(m -> m
+                        .index(indexName)
+                        .ids(ids)
+                        .sourceIncludes("severity", "status"),
+                Finding.class
+        ));
+        for (MultiGetResponseItem<Finding> item : response.docs()) {
+            if (item.isResult() && item.result().found()) {
+                found.put(item.result().id(), item.result().source());
+            }
         }
-//        return"";
+        return found;
     }
 
-    public String indexFinding(Finding finding,String indexName) throws IOException {
-        String id;
-        if (finding.getId() == null) {
-            finding.setId(UUID.randomUUID().toString());
+    static String severityStatusDigest(Finding f) {
+        return computeHash(f.getSeverity() + "-" + f.getStatus());
+    }
+
+    // Re-keys documents written before ids were derived from the fingerprint: each such document is
+    // written under its fingerprint id and the old copy is deleted. Safe to re-run.
+    public int migrateToFingerprintIds(String indexName) throws IOException {
+        if (!indexTemplateManager.exists(indexName)) {
+            return 0;
+        }
+        int migrated = 0;
+        List<CompletableFuture<String>> futures = new ArrayList<>();
+        try (Stream<Finding> findings = findingIndexReader.stream(indexName, null)) {
+            Iterator<Finding> it = findings.iterator();
+            while (it.hasNext()) {
+                Finding finding = it.next();
+                String currentId = finding.getId();
+                String fingerprintId = migratedId(finding);
+                if (fingerprintId == null) {
+                    continue;
+                }
+                finding.setId(fingerprintId);
+                CompletableFuture<String> indexed = new CompletableFuture<>();
+                bulkIngester.add(op -> op.index(i -> i.index(indexName).id(fingerprintId).document(finding)), indexed);
+                CompletableFuture<String> deleted = new CompletableFuture<>();
+                bulkIngester.add(op -> op.delete(d -> d.index(indexName).id(currentId)), deleted);
+                futures.add(indexed);
+                futures.add(deleted);
+                migrated++;
+                if (futures.size() >= FLUSH_EVERY) {
+                    awaitAll(futures);
+                }
+            }
+            awaitAll(futures);
+        } finally {
+            dedupCache.invalidateIndex(indexName);
         }
-        id=finding.getId();
-        IndexRequest<Finding> request = IndexRequest.of(i -> i
-                .index(indexName)
-                .id(finding.getId())
-                .document(finding)
-        );
-        IndexResponse response = esClient.index(request);
-        return id;
+        return migrated;
     }
 
-    public List<Finding> findByToolType(ToolType toolType,String indexName) throws IOException {
-        try {
-            SearchResponse<Finding> response = esClient.search(s -> s
-                    .index(indexName)
-                    .query(q -> q.term(t -> t
-                            .field("toolType.keyword")
-                            .value(toolType.name())
+    // The fingerprint id a legacy document moves to, or null if it keeps its id. Documents that
+    // already have a fingerprint id are left alone: the alert number behind it may not be stored on
+    // the document (SARIF results have none), so recomputing it could merge distinct findings.
+    static String migratedId(Finding finding) {
+        if (finding.getToolType() == null || finding.getToolType() == ToolType.SARIF
+                || FindingFingerprint.isFingerprint(finding.getId())) {
+            return null;
+        }
+        String fingerprintId = FindingFingerprint.of(finding);
+        return fingerprintId.equals(finding.getId()) ? null : fingerprintId;
+    }
 
-                    ))
-                    .size(10000),
-                    Finding.class
-            );
-            return response.hits().hits().stream()
-                    .map(Hit::source)
-                    .collect(Collectors.toList());
-        } catch (ElasticsearchException ex) {
-            if (ex.response().error().type().equals("index_not_found_exception")) {
-                return Collections.emptyList();
-            } else {
-                throw ex;
+    // Full re-scan reconciliation: OPEN and CONFIRM findings of the tool whose id is not in seen are
+    // set to FIXED with partial bulk updates. Existing ids are streamed page by page, so memory is
+    // bounded by the seen set and the pending updates. Triaged states (false positive, suppressed)
+    // are left alone. With toolNames given, only findings of those named tools are considered, for
+    // tool types shared by several tools; null means every finding of the type. Returns the number
+    // of findings closed.
+    public int closeVanishedFindings(String indexName, ToolType toolType, Collection<String> toolNames, FingerprintSet seen) throws IOException {
+        Query active = Query.of(q -> q.bool(b -> {
+            b.filter(f -> f.term(t -> t.field("toolType.keyword").value(toolType.name())))
+                    .filter(f -> f.terms(t -> t.field("status.keyword").terms(v -> v.value(List.of(
+                            FieldValue.of(Status.OPEN.name()), FieldValue.of(Status.CONFIRM.name()))))));
+            if (toolNames != null) {
+                b.filter(f -> f.terms(t -> t.field("toolName").terms(v -> v.value(
+                        toolNames.stream().map(FieldValue::of).toList()))));
+            }
+            return b;
+        }));
+        Map<String, Object> fixed = Map.of("status", Status.FIXED.name(), "updatedAt", Instant.now().toString());
+        int closed = 0;
+        List<CompletableFuture<String>> futures = new ArrayList<>();
+        try (Stream<Finding> existing = findingIndexReader.stream(indexName, active, "status")) {
+            Iterator<Finding> it = existing.iterator();
+            while (it.hasNext()) {
+                String id = it.next().getId();
+                if (seen.contains(id)) {
+                    continue;
+                }
+                CompletableFuture<String> updated = new CompletableFuture<>();
+                bulkIngester.add(op -> op.update(u -> u.index(indexName).id(id).action(a -> a.doc(fixed))), updated);
+                futures.add(updated);
+                dedupCache.invalidate(indexName, id);
+                if (futures.size() >= FLUSH_EVERY) {
+                    closed += awaitUpdates(futures);
+                }
             }
         }
+        return closed + awaitUpdates(futures);
     }
 
-    private String getAlertIdFromAdditionalData(Finding f) {
-        if (f.getAdditionalData() != null && f.getAdditionalData().containsKey("number")) {
-            Object val = f.getAdditionalData().get("number");
-            return val == null ? "" : val.toString();
+    // Waits for the queued updates and counts the successful ones; a finding deleted meanwhile is only reported.
+    private int awaitUpdates(List<CompletableFuture<String>> futures) {
+        bulkIngester.flush();
+        int succeeded = 0;
+        for (CompletableFuture<String> future : futures) {
+            try {
+                future.join();
+                succeeded++;
+            } catch (CompletionException e) {
+                System.err.println("Failed to close finding: " + e.getCause().getMessage());
+            }
         }
-        return "";
+        futures.clear();
+        return succeeded;
     }
-    private boolean doesIndexExist(String indexName) {
-        try {
-            return esClient.indices().exists(e -> e.index(indexName)).value();
-        } catch (IOException e) {
-            e.printStackTrace();
-            return false;
+
+    private void awaitAll(List<CompletableFuture<String>> futures) {
+        bulkIngester.flush();
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+        futures.clear();
+    }
+
+    // Returns the ids in input order; an item that failed to index is reported and left null,
+    // so one bad document does not fail the rest of the batch.
+    public List<String> bulkIndexFindings(List<Finding> findings, String indexName) {
+        if (findings.isEmpty()) {
+            return new ArrayList<>();
+        }
+        long start = System.nanoTime();
+        List<CompletableFuture<String>> futures = new ArrayList<>(findings.size());
+        for (Finding finding : findings) {
+            if (finding.getId() == null) {
+                finding.setId(UUID.randomUUID().toString());
+            }
+            CompletableFuture<String> future = new CompletableFuture<>();
+            bulkIngester.add(op -> op.index(i -> i
+                    .index(indexName)
+                    .id(finding.getId())
+                    .document(finding)
+            ), future);
+            futures.add(future);
+        }
+        bulkIngester.flush();
+        List<String> ids = new ArrayList<>(findings.size());
+        int failed = 0;
+        for (int i = 0; i < futures.size(); i++) {
+            try {
+                ids.add(futures.get(i).join());
+            } catch (CompletionException e) {
+                System.err.println("Failed to index finding " + findings.get(i).getId() + ": " + e.getCause().getMessage());
+                ids.add(null);
+                failed++;
+            }
+        }
+        metrics.recordEs("bulk", System.nanoTime() - start);
+        if (failed > 0) {
+            metrics.recordEsErrors("bulk", failed);
         }
+        return ids;
     }
 }
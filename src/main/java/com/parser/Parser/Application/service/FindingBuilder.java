@@ -0,0 +1,75 @@
+package com.parser.Parser.Application.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.parser.Parser.Application.model.Finding;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.BiFunction;
+
+/**
+ * Turns raw alerts into findings. Batches of at least parallelThreshold alerts are split into
+ * chunks and built on the common ForkJoin pool; smaller ones are built on the calling thread.
+ * Either way the output list is in input order.
+ */
+class FindingBuilder {
+
+    // One alert as read from the export: its tree and its original JSON text.
+    record RawAlert(JsonNode node, String raw) {
+    }
+
+    private final BiFunction<JsonNode, String, Finding> build;
+    private final int parallelThreshold;
+    private final int chunkSize;
+
+    FindingBuilder(BiFunction<JsonNode, String, Finding> build, int parallelThreshold, int chunkSize) {
+        this.build = build;
+        this.parallelThreshold = parallelThreshold;
+        this.chunkSize = Math.max(1, chunkSize);
+    }
+
+    Finding build(RawAlert alert) {
+        return build.apply(alert.node(), alert.raw());
+    }
+
+    List<Finding> buildAll(List<RawAlert> alerts) {
+        Finding[] out = new Finding[alerts.size()];
+        if (parallelThreshold <= 0 || alerts.size() < parallelThreshold) {
+            for (int i = 0; i < out.length; i++) {
+                out[i] = build(alerts.get(i));
+            }
+        } else {
+            ForkJoinPool.commonPool().invoke(new Chunk(alerts, out, 0, out.length));
+        }
+        return new ArrayList<>(Arrays.asList(out));
+    }
+
+    private class Chunk extends RecursiveAction {
+        private final List<RawAlert> alerts;
+        private final Finding[] out;
+        private final int from;
+        private final int to;
+
+        Chunk(List<RawAlert> alerts, Finding[] out, int from, int to) {
+            this.alerts = alerts;
+            this.out = out;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= chunkSize) {
+                for (int i = from; i < to; i++) {
+                    out[i] = build(alerts.get(i));
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new Chunk(alerts, out, from, mid), new Chunk(alerts, out, mid, to));
+        }
+    }
+}
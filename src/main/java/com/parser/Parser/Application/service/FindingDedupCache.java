@@ -0,0 +1,98 @@
+package com.parser.Parser.Application.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+
+/**
+ * Remembers, per tenant finding index, the document id and severity/status digest last seen for
+ * each alert fingerprint, so unchanged alerts can be skipped without asking Elasticsearch.
+ * Entries are filled from ES lookups and refreshed on every successful write.
+ */
+@Component
+public class FindingDedupCache {
+
+    public record Entry(String documentId, String digest) {}
+
+    private final Cache<String, Cache<String, Entry>> indices;
+    private final long maxEntriesPerIndex;
+    // Index caches whose stats are still counted live, and the summed stats of those already removed
+    private final Set<Cache<String, Entry>> live = Collections.newSetFromMap(new IdentityHashMap<>());
+    private CacheStats retired = CacheStats.empty();
+
+    public FindingDedupCache(@Value("${app.dedup.cache.max-indices:256}") long maxIndices,
+                             @Value("${app.dedup.cache.max-entries-per-index:200000}") long maxEntriesPerIndex) {
+        this.maxEntriesPerIndex = maxEntriesPerIndex;
+        this.indices = Caffeine.newBuilder()
+                .maximumSize(maxIndices)
+                .recordStats()
+                .<String, Cache<String, Entry>>removalListener((indexName, cache, cause) -> retire(cache))
+                .build();
+    }
+
+    public Entry get(String indexName, String fingerprint) {
+        return forIndex(indexName).getIfPresent(fingerprint);
+    }
+
+    public void put(String indexName, String fingerprint, String documentId, String digest) {
+        forIndex(indexName).put(fingerprint, new Entry(documentId, digest));
+    }
+
+    public void invalidate(String indexName, String fingerprint) {
+        Cache<String, Entry> cache = indices.getIfPresent(indexName);
+        if (cache != null) {
+            cache.invalidate(fingerprint);
+        }
+    }
+
+    public void invalidateIndex(String indexName) {
+        indices.invalidate(indexName);
+    }
+
+    public long size() {
+        return indices.asMap().values().stream().mapToLong(Cache::estimatedSize).sum();
+    }
+
+    // Hit, miss and eviction counts over every index cache since startup. Those of removed index
+    // caches are kept in a running total, so the counts never go down.
+    public CacheStats stats() {
+        synchronized (live) {
+            CacheStats total = retired;
+            for (Cache<String, Entry> cache : live) {
+                total = total.plus(cache.stats());
+            }
+            return total;
+        }
+    }
+
+    // Moves a removed index cache into the running total, in one step as seen from stats().
+    private void retire(Cache<String, Entry> cache) {
+        if (cache == null) {
+            return;
+        }
+        synchronized (live) {
+            if (live.remove(cache)) {
+                retired = retired.plus(cache.stats());
+            }
+        }
+    }
+
+    private Cache<String, Entry> forIndex(String indexName) {
+        return indices.get(indexName, name -> {
+            Cache<String, Entry> cache = Caffeine.newBuilder()
+                    .maximumSize(maxEntriesPerIndex)
+                    .recordStats()
+                    .build();
+            synchronized (live) {
+                live.add(cache);
+            }
+            return cache;
+        });
+    }
+}
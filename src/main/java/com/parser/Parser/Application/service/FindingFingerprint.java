@@ -0,0 +1,60 @@
+package com.parser.Parser.Application.service;
+
+import com.parser.Parser.Application.model.Finding;
+import com.parser.Parser.Application.model.ToolType;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Derives the Elasticsearch document id of a finding from (toolType, alert number, title),
+ * so re-ingesting the same alert always addresses the same document.
+ */
+public final class FindingFingerprint {
+
+    private FindingFingerprint() {
+    }
+
+    public static String of(ToolType toolType, String alertNumber, String title) {
+        String key = toolType.name() + ":" + alertNumber.trim() + ":" + title.trim();
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(md.digest(key.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException("Error computing fingerprint", e);
+        }
+    }
+
+    public static String of(Finding f) {
+        return of(f.getToolType(), alertNumber(f), f.getTitle() == null ? "" : f.getTitle());
+    }
+
+    // Parsed findings already carry their fingerprint as id; reusing it avoids reading additionalData.
+    public static String idOf(Finding f) {
+        return f.getId() != null ? f.getId() : of(f);
+    }
+
+    // Whether an id has the shape of a fingerprint (64 lower-case hex chars) rather than a legacy UUID.
+    public static boolean isFingerprint(String id) {
+        if (id == null || id.length() != 64) {
+            return false;
+        }
+        for (int i = 0; i < id.length(); i++) {
+            char c = id.charAt(i);
+            if ((c < '0' || c > '9') && (c < 'a' || c > 'f')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public static String alertNumber(Finding f) {
+        if (f.getAdditionalData() != null && f.getAdditionalData().containsKey("number")) {
+            Object val = f.getAdditionalData().get("number");
+            return val == null ? "" : val.toString();
+        }
+        return "";
+    }
+}
@@ -0,0 +1,149 @@
+package com.parser.Parser.Application.service;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._types.FieldValue;
+import co.elastic.clients.elasticsearch._types.SortOrder;
+import co.elastic.clients.elasticsearch._types.query_dsl.Query;
+import co.elastic.clients.elasticsearch.core.SearchResponse;
+import co.elastic.clients.elasticsearch.core.search.Hit;
+import com.parser.Parser.Application.model.Finding;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.*;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Reads every matching finding of an index as a lazy Stream, one page of page-size hits at a time.
+ * Pages come from a point-in-time with search_after on _shard_doc, so there is no 10k result
+ * window and the stream sees a consistent snapshot even while the index is written to. Only the
+ * requested source fields are fetched; the document id is always set on the returned findings.
+ * The point-in-time is released when the stream is exhausted or closed, so use try-with-resources.
+ */
+@Component
+public class FindingIndexReader {
+
+    private final ElasticsearchClient esClient;
+    private final IndexTemplateManager indexTemplateManager;
+    private final IngestionMetrics metrics;
+
+    @Value("${app.elasticsearch.reader.page-size:1000}")
+    private int pageSize;
+
+    @Value("${app.elasticsearch.reader.keep-alive:2m}")
+    private String keepAlive;
+
+    public FindingIndexReader(ElasticsearchClient esClient, IndexTemplateManager indexTemplateManager, IngestionMetrics metrics) {
+        this.esClient = esClient;
+        this.indexTemplateManager = indexTemplateManager;
+        this.metrics = metrics;
+    }
+
+    // A null query matches every document; no fields fetches the whole source. A missing index is empty.
+    public Stream<Finding> stream(String indexName, Query query, String... fields) throws IOException {
+        if (!indexTemplateManager.exists(indexName)) {
+            return Stream.empty();
+        }
+        String pitId = metrics.timeEs("open_pit", () -> esClient.openPointInTime(o -> o
+                .index(indexName)
+                .keepAlive(t -> t.time(keepAlive)))).id();
+        PageIterator pages = new PageIterator(pitId, query == null ? Query.of(q -> q.matchAll(m -> m)) : query, List.of(fields));
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(pages, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(pages::close);
+    }
+
+    private class PageIterator implements Iterator<Finding> {
+        private final Query query;
+        private final List<String> fields;
+        private String pitId;
+        private List<FieldValue> searchAfter;
+        private Iterator<Hit<Finding>> page = Collections.emptyIterator();
+        private boolean lastPage;
+        private boolean closed;
+
+        private PageIterator(String pitId, Query query, List<String> fields) {
+            this.pitId = pitId;
+            this.query = query;
+            this.fields = fields;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (page.hasNext()) {
+                return true;
+            }
+            if (lastPage || closed) {
+                close();
+                return false;
+            }
+            try {
+                fetch();
+            } catch (IOException e) {
+                close();
+                throw new UncheckedIOException(e);
+            }
+            if (!page.hasNext()) {
+                close();
+                return false;
+            }
+            return true;
+        }
+
+        @Override
+        public Finding next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Hit<Finding> hit = page.next();
+            Finding finding = hit.source() != null ? hit.source() : new Finding();
+            finding.setId(hit.id());
+            return finding;
+        }
+
+        private void fetch() throws IOException {
+            String currentPit = pitId;
+            List<FieldValue> after = searchAfter;
+            SearchResponse<Finding> response = metrics.timeEs("pit_search", () -> esClient.search(s -> {
+                s.size(pageSize)
+                        .pit(p -> p.id(currentPit).keepAlive(t -> t.time(keepAlive)))
+                        .query(query)
+                        .sort(so -> so.field(f -> f.field("_shard_doc").order(SortOrder.Asc)))
+                        .trackTotalHits(t -> t.enabled(false));
+                if (!fields.isEmpty()) {
+                    s.source(src -> src.filter(f -> f.includes(fields)));
+                }
+                if (after != null) {
+                    s.searchAfter(after);
+                }
+                return s;
+            }, Finding.class));
+            // The point-in-time id may change between requests
+            if (response.pitId() != null) {
+                pitId = response.pitId();
+            }
+            List<Hit<Finding>> hits = response.hits().hits();
+            lastPage = hits.size() < pageSize;
+            if (!hits.isEmpty()) {
+                searchAfter = hits.get(hits.size() - 1).sort();
+            }
+            page = hits.iterator();
+        }
+
+        private void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            try {
+                String currentPit = pitId;
+                esClient.closePointInTime(c -> c.id(currentPit));
+            } catch (IOException | RuntimeException e) {
+                // The point-in-time expires on its own after keep-alive
+                System.err.println("Failed to close point-in-time: " + e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.parser.Parser.Application.service;
+
+import com.fasterxml.jackson.core.JsonLocation;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.NullNode;
+import com.parser.Parser.Application.model.Finding;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Walks a scan export one alert at a time. Where the alerts sit in the document is up to the
+ * AlertReader: for the GitHub exports a top-level array yields one finding per element and any
+ * other root value is treated as a single alert, same as the tree based parse.
+ * Only the alert currently being built is held in memory, or the current batch when read through
+ * nextBatch, which lets the FindingBuilder build large batches in parallel.
+ */
+public class FindingIterator implements Iterator<Finding>, Closeable {
+
+    // Returns the source text between two parser locations.
+    interface RawSlicer {
+        String slice(JsonLocation start, JsonLocation end);
+
+        // Lets go of the source before a location that will never be sliced, e.g. after a skipped value.
+        default void discardTo(JsonLocation end) {
+        }
+    }
+
+    // Positions the parser on the export's alerts; returns null once there are none left.
+    interface AlertReader {
+        FindingBuilder.RawAlert next() throws IOException;
+
+        // Tools whose output has been read, for layouts that name them; empty otherwise.
+        default Set<String> toolNames() {
+            return Set.of();
+        }
+    }
+
+    private final JsonParser parser;
+    private final AlertReader reader;
+    private final FindingBuilder builder;
+    private final StringPool stringPool;
+    private boolean done;
+    private FindingBuilder.RawAlert next;
+
+    FindingIterator(JsonParser parser, AlertReader reader, FindingBuilder builder, StringPool stringPool) {
+        this.parser = parser;
+        this.reader = reader;
+        this.builder = builder;
+        this.stringPool = stringPool;
+    }
+
+    // The GitHub export layout: an array of alerts, or a single alert object.
+    static AlertReader topLevel(JsonParser parser, RawSlicer slicer) {
+        return new AlertReader() {
+            private boolean started;
+            private boolean finished;
+
+            @Override
+            public FindingBuilder.RawAlert next() throws IOException {
+                if (finished) {
+                    return null;
+                }
+                if (!started) {
+                    started = true;
+                    JsonToken first = parser.nextToken();
+                    if (first == null) {
+                        finished = true;
+                        return null;
+                    }
+                    if (first != JsonToken.START_ARRAY) {
+                        finished = true;
+                        return readAlert(parser, slicer);
+                    }
+                }
+                JsonToken token = parser.nextToken();
+                if (token == null || token == JsonToken.END_ARRAY) {
+                    finished = true;
+                    return null;
+                }
+                return readAlert(parser, slicer);
+            }
+        };
+    }
+
+    // Names of the tools whose output was read so far, including tools that reported nothing
+    // (SARIF runs); empty for exports that do not name their tool.
+    public Set<String> toolNames() {
+        return reader.toolNames();
+    }
+
+    // Pool shared by the findings of this parse, for hit rate reporting.
+    public StringPool stringPool() {
+        return stringPool;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next != null) {
+            return true;
+        }
+        if (done) {
+            return false;
+        }
+        try {
+            next = advance();
+        } catch (IOException e) {
+            done = true;
+            throw new UncheckedIOException(e);
+        }
+        return next != null;
+    }
+
+    @Override
+    public Finding next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        FindingBuilder.RawAlert alert = next;
+        next = null;
+        return builder.build(alert);
+    }
+
+    // Reads up to max alerts and builds them together. Empty once the export is exhausted.
+    public List<Finding> nextBatch(int max) {
+        List<FindingBuilder.RawAlert> alerts = new ArrayList<>(Math.min(max, 1024));
+        while (alerts.size() < max && hasNext()) {
+            alerts.add(next);
+            next = null;
+        }
+        return builder.buildAll(alerts);
+    }
+
+    private FindingBuilder.RawAlert advance() throws IOException {
+        FindingBuilder.RawAlert alert = reader.next();
+        if (alert == null) {
+            done = true;
+        }
+        return alert;
+    }
+
+    // Reads the value the parser is positioned on, together with its source text.
+    static FindingBuilder.RawAlert readAlert(JsonParser parser, RawSlicer slicer) throws IOException {
+        JsonLocation start = parser.currentTokenLocation();
+        JsonNode alert = parser.readValueAsTree();
+        if (alert == null) {
+            alert = NullNode.getInstance();
+        }
+        String raw;
+        if (alert.isContainerNode()) {
+            raw = slicer.slice(start, parser.currentLocation());
+        } else {
+            raw = alert.toString();
+            slicer.discardTo(parser.currentLocation());
+        }
+        return new FindingBuilder.RawAlert(alert, raw);
+    }
+
+    @Override
+    public void close() throws IOException {
+        done = true;
+        parser.close();
+    }
+}
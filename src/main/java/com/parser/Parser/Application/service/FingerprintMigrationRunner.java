@@ -0,0 +1,40 @@
+package com.parser.Parser.Application.service;
+
+import com.parser.Parser.Application.model.Tenant;
+import com.parser.Parser.Application.repository.TenantRepository;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * One-time migration of tenant finding indices from random UUID ids to fingerprint ids.
+ * Enable with app.elasticsearch.migrate-fingerprint-ids=true for a single start-up.
+ */
+@Component
+@ConditionalOnProperty(name = "app.elasticsearch.migrate-fingerprint-ids", havingValue = "true")
+public class FingerprintMigrationRunner implements ApplicationRunner {
+
+    private final TenantRepository tenantRepository;
+    private final ElasticsearchService elasticsearchService;
+
+    public FingerprintMigrationRunner(TenantRepository tenantRepository, ElasticsearchService elasticsearchService) {
+        this.tenantRepository = tenantRepository;
+        this.elasticsearchService = elasticsearchService;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        Set<String> indices = new LinkedHashSet<>();
+        for (Tenant tenant : tenantRepository.findAll()) {
+            indices.add(tenant.getFindingindex());
+        }
+        for (String index : indices) {
+            int migrated = elasticsearchService.migrateToFingerprintIds(index);
+            System.out.println("Migrated " + migrated + " findings to fingerprint ids in index=" + index);
+        }
+    }
+}
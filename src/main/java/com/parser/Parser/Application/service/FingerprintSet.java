@@ -0,0 +1,45 @@
+package com.parser.Parser.Application.service;
+
+import java.util.Arrays;
+import java.util.HexFormat;
+
+/**
+ * Compact set of finding fingerprints, kept as the first 64 bits of each SHA-256 fingerprint in a
+ * sorted long array: 8 bytes per alert, so a million-alert scan needs about 8 MB. A prefix
+ * collision can only make a vanished finding look present, which leaves it open; it can never
+ * close a finding that is still reported. Add everything first, then query.
+ */
+public class FingerprintSet {
+
+    private long[] prefixes = new long[1024];
+    private int size;
+    private boolean sorted = true;
+
+    public void add(String fingerprint) {
+        if (size == prefixes.length) {
+            prefixes = Arrays.copyOf(prefixes, size * 2);
+        }
+        prefixes[size++] = prefix(fingerprint);
+        sorted = false;
+    }
+
+    public boolean contains(String fingerprint) {
+        if (!sorted) {
+            Arrays.sort(prefixes, 0, size);
+            sorted = true;
+        }
+        return Arrays.binarySearch(prefixes, 0, size, prefix(fingerprint)) >= 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // Ids that are not 64 hex chars (legacy UUIDs) are hashed by their string form instead
+    private static long prefix(String fingerprint) {
+        if (fingerprint.length() == 64) {
+            return HexFormat.fromHexDigitsToLong(fingerprint, 0, 16);
+        }
+        return fingerprint.hashCode();
+    }
+}
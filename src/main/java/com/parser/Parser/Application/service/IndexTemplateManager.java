@@ -0,0 +1,144 @@
+package com.parser.Parser.Application.service;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._types.ElasticsearchException;
+import co.elastic.clients.elasticsearch._types.mapping.DynamicMapping;
+import co.elastic.clients.elasticsearch._types.mapping.TypeMapping;
+import co.elastic.clients.elasticsearch.indices.GetIndexTemplateResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Owns the finding index mapping. A versioned index template is installed once per process (and
+ * only replaced when this version is newer), and finding indices are created explicitly with the
+ * same mapping instead of implicitly by the first write. The mapping is strict about what gets
+ * indexed: known Finding fields get keyword/numeric/date types, additionalData is kept in _source
+ * only (enabled: false), and unknown top-level fields are not indexed (dynamic: false).
+ * Index existence is cached per name, so each index costs at most one HEAD request per process.
+ */
+@Component
+public class IndexTemplateManager {
+
+    private final ElasticsearchClient esClient;
+    private final IngestionMetrics metrics;
+    private final Set<String> knownIndices = ConcurrentHashMap.newKeySet();
+    private volatile boolean templateInstalled;
+
+    @Value("${app.elasticsearch.template.name:findings}")
+    private String templateName;
+
+    @Value("${app.elasticsearch.template.version:2}")
+    private long templateVersion;
+
+    @Value("${app.elasticsearch.template.patterns:findings-*}")
+    private String templatePatterns;
+
+    public IndexTemplateManager(ElasticsearchClient esClient, IngestionMetrics metrics) {
+        this.esClient = esClient;
+        this.metrics = metrics;
+    }
+
+    // True once the index is known to exist. Only positive answers are cached.
+    public boolean exists(String indexName) throws IOException {
+        if (knownIndices.contains(indexName)) {
+            return true;
+        }
+        boolean exists = metrics.timeEs("exists", () -> esClient.indices().exists(e -> e.index(indexName))).value();
+        if (exists) {
+            addNewFields(indexName);
+            knownIndices.add(indexName);
+        }
+        return exists;
+    }
+
+    // Indices created before a field was mapped do not index it (dynamic: false). Adding fields to an
+    // existing mapping is allowed, so fields added since version 1 are put once per index and process.
+    private void addNewFields(String indexName) throws IOException {
+        metrics.timeEs("put_mapping", () -> esClient.indices().putMapping(p -> p
+                .index(indexName)
+                .properties("toolName", f -> f.keyword(k -> k))));
+    }
+
+    // Creates the index with the finding mapping if needed. Returns false when it was just created,
+    // i.e. when it cannot hold any documents yet.
+    public boolean ensureIndex(String indexName) throws IOException {
+        if (exists(indexName)) {
+            return true;
+        }
+        ensureTemplate();
+        try {
+            metrics.timeEs("create_index", () -> esClient.indices().create(c -> c.index(indexName).mappings(m -> findingMapping(m))));
+            System.out.println("Created index " + indexName);
+        } catch (ElasticsearchException e) {
+            // Another instance or thread created it first
+            if (!"resource_already_exists_exception".equals(e.error().type())) {
+                throw e;
+            }
+        }
+        knownIndices.add(indexName);
+        return false;
+    }
+
+    public void ensureTemplate() throws IOException {
+        if (templateInstalled) {
+            return;
+        }
+        synchronized (this) {
+            if (templateInstalled) {
+                return;
+            }
+            Long installed = installedVersion();
+            if (installed == null || installed < templateVersion) {
+                List<String> patterns = Arrays.stream(templatePatterns.split(",")).map(String::trim).toList();
+                esClient.indices().putIndexTemplate(t -> t
+                        .name(templateName)
+                        .indexPatterns(patterns)
+                        .version(templateVersion)
+                        .template(tb -> tb.mappings(m -> findingMapping(m))));
+                System.out.println("Installed index template " + templateName + " version " + templateVersion);
+            }
+            templateInstalled = true;
+        }
+    }
+
+    private Long installedVersion() throws IOException {
+        try {
+            GetIndexTemplateResponse response = esClient.indices().getIndexTemplate(g -> g.name(templateName));
+            if (response.indexTemplates().isEmpty()) {
+                return null;
+            }
+            return response.indexTemplates().get(0).indexTemplate().version();
+        } catch (ElasticsearchException e) {
+            if (e.status() == 404) {
+                return null;
+            }
+            throw e;
+        }
+    }
+
+    // toolType, status and severity keep a "keyword" sub-field so queries on toolType.keyword still work.
+    static TypeMapping.Builder findingMapping(TypeMapping.Builder m) {
+        return m.dynamic(DynamicMapping.False)
+                .properties("id", p -> p.keyword(k -> k))
+                .properties("toolType", p -> p.keyword(k -> k.fields("keyword", f -> f.keyword(kw -> kw))))
+                .properties("toolName", p -> p.keyword(k -> k))
+                .properties("status", p -> p.keyword(k -> k.fields("keyword", f -> f.keyword(kw -> kw))))
+                .properties("severity", p -> p.keyword(k -> k.fields("keyword", f -> f.keyword(kw -> kw))))
+                .properties("title", p -> p.text(t -> t.fields("keyword", f -> f.keyword(kw -> kw.ignoreAbove(256)))))
+                .properties("description", p -> p.text(t -> t))
+                .properties("url", p -> p.keyword(k -> k.ignoreAbove(2048)))
+                .properties("cve", p -> p.keyword(k -> k))
+                .properties("cwe", p -> p.keyword(k -> k))
+                .properties("cvss", p -> p.double_(d -> d))
+                .properties("location", p -> p.keyword(k -> k.ignoreAbove(1024)))
+                .properties("updatedAt", p -> p.date(d -> d))
+                .properties("ticketId", p -> p.keyword(k -> k))
+                .properties("additionalData", p -> p.object(o -> o.enabled(false)));
+    }
+}
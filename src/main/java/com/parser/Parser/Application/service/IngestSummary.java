@@ -0,0 +1,7 @@
+package com.parser.Parser.Application.service;
+
+import com.parser.Parser.Application.model.ToolType;
+
+public record IngestSummary(String eventId, Integer tenantId, ToolType toolType, int parsed, int indexed, int closed,
+                            String contentDigest) {
+}
@@ -0,0 +1,136 @@
+package com.parser.Parser.Application.service;
+
+import com.parser.Parser.Application.model.ToolType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Meters for the ingestion pipeline, published through Actuator (/actuator/prometheus).
+ * Kafka client metrics, including consumer lag, are bound separately in KafkaConfig.
+ */
+@Component
+public class IngestionMetrics {
+
+    @FunctionalInterface
+    public interface EsCall<T> {
+        T call() throws IOException;
+    }
+
+    private final MeterRegistry registry;
+
+    public IngestionMetrics(MeterRegistry registry, FindingDedupCache dedupCache, TenantCache tenantCache,
+                            ParseJobExecutor parseJobExecutor) {
+        this.registry = registry;
+        cacheCounter("parser.dedup.cache.hits", dedupCache, c -> c.stats().hitCount());
+        cacheCounter("parser.dedup.cache.misses", dedupCache, c -> c.stats().missCount());
+        cacheCounter("parser.dedup.cache.evictions", dedupCache, c -> c.stats().evictionCount());
+        cacheCounter("parser.tenant.cache.hits", tenantCache, c -> c.stats().hitCount());
+        cacheCounter("parser.tenant.cache.misses", tenantCache, c -> c.stats().missCount());
+        Gauge.builder("parser.scheduler.queued", parseJobExecutor, ParseJobExecutor::queued).register(registry);
+        Gauge.builder("parser.scheduler.running", parseJobExecutor, ParseJobExecutor::running).register(registry);
+    }
+
+    public void recordFileRead(ToolType toolType, long nanos) {
+        Timer.builder("parser.file.read")
+                .tag("toolType", toolType.name())
+                .register(registry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordParse(ToolType toolType, long nanos, int findings) {
+        Timer.builder("parser.parse")
+                .tag("toolType", toolType.name())
+                .register(registry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+        Counter.builder("parser.findings")
+                .tag("toolType", toolType.name())
+                .register(registry)
+                .increment(findings);
+    }
+
+    public void recordStringPool(ToolType toolType, StringPool pool) {
+        Counter.builder("parser.stringpool.lookups")
+                .tag("toolType", toolType.name())
+                .tag("result", "hit")
+                .register(registry)
+                .increment(pool.hits());
+        Counter.builder("parser.stringpool.lookups")
+                .tag("toolType", toolType.name())
+                .tag("result", "miss")
+                .register(registry)
+                .increment(pool.misses());
+    }
+
+    public void recordReconcile(ToolType toolType, int closed) {
+        Counter.builder("parser.reconcile.closed")
+                .tag("toolType", toolType.name())
+                .register(registry)
+                .increment(closed);
+    }
+
+    // outcome is one of new, changed, unchanged
+    public void recordDedup(String outcome, int count) {
+        if (count == 0) {
+            return;
+        }
+        Counter.builder("parser.dedup")
+                .tag("outcome", outcome)
+                .register(registry)
+                .increment(count);
+    }
+
+    public <T> T timeEs(String operation, EsCall<T> call) throws IOException {
+        long start = System.nanoTime();
+        try {
+            return call.call();
+        } catch (IOException | RuntimeException e) {
+            recordEsErrors(operation, 1);
+            throw e;
+        } finally {
+            recordEs(operation, System.nanoTime() - start);
+        }
+    }
+
+    public void recordEs(String operation, long nanos) {
+        Timer.builder("parser.es.requests")
+                .tag("operation", operation)
+                .publishPercentileHistogram()
+                .register(registry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordEsErrors(String operation, int count) {
+        Counter.builder("parser.es.errors")
+                .tag("operation", operation)
+                .register(registry)
+                .increment(count);
+    }
+
+    // Times a Kafka send until the broker acknowledges it; failures are tagged instead of dropped.
+    public <T> CompletableFuture<T> timeSend(String kind, CompletableFuture<T> send) {
+        long start = System.nanoTime();
+        return send.whenComplete((result, failure) -> {
+            Timer.builder("parser.kafka.send")
+                    .tag("kind", kind)
+                    .tag("outcome", failure == null ? "success" : "failure")
+                    .register(registry)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            if (failure != null) {
+                System.err.println("Failed to send " + kind + ": " + failure.getMessage());
+            }
+        });
+    }
+
+    private <C> void cacheCounter(String name, C cache, ToDoubleFunction<C> count) {
+        FunctionCounter.builder(name, cache, count).register(registry);
+    }
+}
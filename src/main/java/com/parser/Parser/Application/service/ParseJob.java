@@ -0,0 +1,8 @@
+package com.parser.Parser.Application.service;
+
+import com.parser.Parser.Application.model.ToolType;
+
+import java.nio.file.Path;
+
+public record ParseJob(String eventId, Integer tenantId, String findingIndex, ToolType toolType, Path file, boolean reconcile) {
+}
@@ -0,0 +1,211 @@
+package com.parser.Parser.Application.service;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.*;
+
+/**
+ * Runs parse jobs on virtual threads, scheduled fairly across tenants. Submitted jobs wait in a
+ * queue per tenant and tenants are served round-robin: on its turn a tenant may start up to its
+ * weight (default 1, see app.parser.scheduler.weights) jobs before the next tenant is served. At
+ * most max-in-flight jobs run at once and at most per-tenant-max for one tenant, so a tenant with
+ * a huge backlog cannot hold every slot while small tenants wait.
+ * Submitting never blocks; instead the parser listener container is paused once pause-queued jobs
+ * are waiting and resumed when the backlog falls to resume-queued.
+ */
+@Component
+public class ParseJobExecutor {
+
+    private static final class TenantQueue {
+        private final Integer tenantId;
+        private final int weight;
+        private final ArrayDeque<Job> jobs = new ArrayDeque<>();
+        private int running;
+        private int credit;
+        private boolean scheduled;
+
+        private TenantQueue(Integer tenantId, int weight) {
+            this.tenantId = tenantId;
+            this.weight = weight;
+        }
+    }
+
+    private record Job(Runnable body, CompletableFuture<?> result) {
+    }
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Object lock = new Object();
+    private final Map<Integer, TenantQueue> tenants = new HashMap<>();
+    // Tenants with queued jobs, in the order they will be served
+    private final ArrayDeque<TenantQueue> ring = new ArrayDeque<>();
+    private final Map<Integer, Integer> weights;
+    private final int maxInFlight;
+    private final int perTenantMax;
+    private final int pauseQueued;
+    private final int resumeQueued;
+    private final String listenerId;
+    private final ObjectProvider<KafkaListenerEndpointRegistry> listenerRegistry;
+    private int running;
+    private int queued;
+    private boolean paused;
+
+    public ParseJobExecutor(@Value("${app.parser.executor.max-in-flight:64}") int maxInFlight,
+                            @Value("${app.parser.executor.per-tenant-max:4}") int perTenantMax,
+                            @Value("${app.parser.scheduler.weights:}") String weights,
+                            @Value("${app.parser.scheduler.pause-queued:256}") int pauseQueued,
+                            @Value("${app.parser.scheduler.resume-queued:64}") int resumeQueued,
+                            @Value("${app.parser.scheduler.listener-id:parseRequestListener}") String listenerId,
+                            ObjectProvider<KafkaListenerEndpointRegistry> listenerRegistry) {
+        this.maxInFlight = maxInFlight;
+        this.perTenantMax = perTenantMax;
+        this.weights = parseWeights(weights);
+        this.pauseQueued = pauseQueued;
+        this.resumeQueued = resumeQueued;
+        this.listenerId = listenerId;
+        this.listenerRegistry = listenerRegistry;
+    }
+
+    // Format: tenantId=weight pairs separated by commas, e.g. "3=4,7=2"
+    private static Map<Integer, Integer> parseWeights(String weights) {
+        Map<Integer, Integer> parsed = new HashMap<>();
+        for (String pair : weights.split(",")) {
+            if (pair.isBlank()) {
+                continue;
+            }
+            String[] parts = pair.split("=");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid tenant weight: " + pair);
+            }
+            parsed.put(Integer.valueOf(parts[0].trim()), Math.max(1, Integer.parseInt(parts[1].trim())));
+        }
+        return parsed;
+    }
+
+    public <T> CompletableFuture<T> submit(Integer tenantId, Callable<T> task) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        synchronized (lock) {
+            TenantQueue tenant = tenants.computeIfAbsent(tenantId, id -> new TenantQueue(id, weights.getOrDefault(id, 1)));
+            tenant.jobs.add(new Job(() -> run(tenant, task, result), result));
+            queued++;
+            if (!tenant.scheduled) {
+                tenant.scheduled = true;
+                tenant.credit = tenant.weight;
+                ring.addLast(tenant);
+            }
+            dispatch();
+            updateBackpressure();
+        }
+        return result;
+    }
+
+    private <T> void run(TenantQueue tenant, Callable<T> task, CompletableFuture<T> result) {
+        try {
+            result.complete(task.call());
+        } catch (Throwable t) {
+            result.completeExceptionally(t);
+        } finally {
+            synchronized (lock) {
+                finished(tenant);
+                dispatch();
+                updateBackpressure();
+            }
+        }
+    }
+
+    // Starts queued jobs while slots are free. Called with the lock held.
+    private void dispatch() {
+        int blocked = 0;
+        while (running < maxInFlight && !ring.isEmpty() && blocked < ring.size()) {
+            TenantQueue tenant = ring.peekFirst();
+            if (tenant.running >= perTenantMax) {
+                nextTurn();
+                blocked++;
+                continue;
+            }
+            Job job = tenant.jobs.poll();
+            queued--;
+            tenant.running++;
+            running++;
+            tenant.credit--;
+            if (tenant.jobs.isEmpty()) {
+                ring.pollFirst();
+                tenant.scheduled = false;
+            } else if (tenant.credit <= 0) {
+                nextTurn();
+            }
+            blocked = 0;
+            try {
+                executor.execute(job.body());
+            } catch (RejectedExecutionException e) {
+                finished(tenant);
+                job.result().completeExceptionally(e);
+            }
+        }
+    }
+
+    private void nextTurn() {
+        TenantQueue tenant = ring.pollFirst();
+        tenant.credit = tenant.weight;
+        ring.addLast(tenant);
+    }
+
+    private void finished(TenantQueue tenant) {
+        running--;
+        tenant.running--;
+        if (tenant.running == 0 && !tenant.scheduled) {
+            tenants.remove(tenant.tenantId);
+        }
+    }
+
+    // Called with the lock held, so pause and resume reach the container in decision order.
+    private void updateBackpressure() {
+        if (!paused && queued >= pauseQueued) {
+            paused = true;
+            System.out.println("Pausing parse listener, " + queued + " jobs queued");
+            listenerContainer(true);
+        } else if (paused && queued <= resumeQueued) {
+            paused = false;
+            System.out.println("Resuming parse listener, " + queued + " jobs queued");
+            listenerContainer(false);
+        }
+    }
+
+    private void listenerContainer(boolean pause) {
+        KafkaListenerEndpointRegistry registry = listenerRegistry.getIfAvailable();
+        MessageListenerContainer container = registry == null ? null : registry.getListenerContainer(listenerId);
+        if (container == null) {
+            return;
+        }
+        if (pause) {
+            container.pause();
+        } else {
+            container.resume();
+        }
+    }
+
+    public int queued() {
+        synchronized (lock) {
+            return queued;
+        }
+    }
+
+    public int running() {
+        synchronized (lock) {
+            return running;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(30, TimeUnit.SECONDS);
+    }
+}
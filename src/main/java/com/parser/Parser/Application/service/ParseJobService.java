@@ -0,0 +1,394 @@
+package com.parser.Parser.Application.service;
+
+import com.parser.Parser.Application.event.AcknowledgementEvent;
+import com.parser.Parser.Application.event.ParseRequestEvent;
+import com.parser.Parser.Application.model.AcknowledgementPayload;
+import com.parser.Parser.Application.model.Finding;
+import com.parser.Parser.Application.model.Tenant;
+import com.parser.Parser.Application.model.ToolType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+@Service
+public class ParseJobService {
+
+    private static final int MAX_WAITING_BATCHES = 2;
+
+    private final TenantCache tenantCache;
+    private final ParserService parserService;
+    private final ElasticsearchService elasticsearchService;
+    private final AsyncElasticsearchService asyncElasticsearchService;
+    private final KafkaTemplate<String, Object> ackTemplate;
+    private final RunbookDispatcher runbookDispatcher;
+    private final ProcessedFileStore processedFiles;
+    private final IngestionMetrics metrics;
+
+    @Value("${app.kafka.topics.ack}")
+    private String ackTopic;
+
+    @Value("${app.elasticsearch.bulk.max-actions:1000}")
+    private int batchSize;
+
+    public ParseJobService(TenantCache tenantCache, ParserService parserService, ElasticsearchService elasticsearchService, AsyncElasticsearchService asyncElasticsearchService, KafkaTemplate<String, Object> ackTemplate, RunbookDispatcher runbookDispatcher, ProcessedFileStore processedFiles, IngestionMetrics metrics) {
+        this.tenantCache = tenantCache;
+        this.parserService = parserService;
+        this.elasticsearchService = elasticsearchService;
+        this.asyncElasticsearchService = asyncElasticsearchService;
+        this.ackTemplate = ackTemplate;
+        this.runbookDispatcher = runbookDispatcher;
+        this.processedFiles = processedFiles;
+        this.metrics = metrics;
+    }
+
+    // Returns null when the event cannot be processed (unknown tenant, missing file); such events are not acked.
+    public ParseJob resolve(ParseRequestEvent event) {
+        String filePath = event.getPayload().getFilePath();
+        Integer tenantId = event.getPayload().getTenantId();
+        Optional<Tenant> optionalTenant = tenantCache.findById(tenantId);
+        if (optionalTenant.isEmpty()) {
+            return null;
+        }
+        Tenant tenant = optionalTenant.get();
+        if(filePath==null){
+            System.out.println("file path doesnt exist");
+            return null;
+        }
+        File file = new File(filePath);
+        if (!file.exists()) {
+            System.err.println("File not found at path: " + filePath);
+            return null;
+        }
+        ToolType toolType = mapToolType(event.getPayload().getTooltype());
+        return new ParseJob(event.getEventId(), tenantId, tenant.getFindingindex(), toolType, file.toPath(),
+                event.getPayload().isReconcile());
+    }
+
+    // Full handling of one event: a file that was already ingested for this tenant and tool type, and
+    // is unchanged on disk since, is acked straight away; anything else is ingested, acked and sent
+    // to the runbook.
+    public void process(ParseJob job) throws IOException {
+        if (alreadyIngested(job)) {
+            skip(job);
+            return;
+        }
+        RunbookDispatcher.Publication runbook = runbookDispatcher.open(job.tenantId());
+        IngestSummary summary;
+        try {
+            summary = ingest(job, runbook);
+        } catch (IOException | RuntimeException e) {
+            runbook.abort();
+            throw e;
+        }
+        sendAck(job.eventId(), "SUCCESS");
+        runbook.finish();
+        markIngested(job, summary.contentDigest());
+    }
+
+    // Skipping must happen before the file is read, while its digest is only computed as it is
+    // parsed. So this relies on the digest recorded when the same file (path, size, modification
+    // time) was last read: a re-submitted unchanged file is acked without reading a byte. The same
+    // bytes under another path or timestamp are parsed again, and their upserts are all unchanged.
+    // A reconcile job is never skipped: an unchanged full re-scan is exactly what closes the
+    // findings that no longer appear.
+    public boolean alreadyIngested(ParseJob job) throws IOException {
+        if (job.reconcile()) {
+            return false;
+        }
+        String digest = processedFiles.digestOf(ProcessedFileStore.fileKey(job.file()));
+        return digest != null && processedFiles.contains(job.tenantId(), job.toolType(), digest);
+    }
+
+    // Inside a Kafka transaction the file only counts as ingested once its ack is committed, so an
+    // aborted batch is parsed again on redelivery instead of being skipped.
+    public void markIngested(ParseJob job, String digest) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    processedFiles.record(job.tenantId(), job.toolType(), digest);
+                }
+            });
+            return;
+        }
+        processedFiles.record(job.tenantId(), job.toolType(), digest);
+    }
+
+    public void skip(ParseJob job) {
+        System.out.println("Skipping already ingested file " + job.file() + " for tenant=" + job.tenantId());
+        sendAck(job.eventId(), "SUCCESS");
+    }
+
+    public IngestSummary ingest(ParseJob job, RunbookDispatcher.Publication runbook) throws IOException {
+        String fileKey = ProcessedFileStore.fileKey(job.file());
+        IngestSummary summary;
+        try (InputStream in = Files.newInputStream(job.file())) {
+            summary = ingest(job, in, runbook);
+        }
+        processedFiles.rememberFile(fileKey, summary.contentDigest());
+        return summary;
+    }
+
+    // Streams the export and upserts it batch by batch, so memory stays bounded by the batch size.
+    // The ids of each indexed batch go to the runbook publication straight away. Fails, after the
+    // rest of the export has still been written, when any finding could not be indexed, so the file
+    // is never recorded as ingested with findings missing.
+    public IngestSummary ingest(ParseJob job, InputStream source, RunbookDispatcher.Publication runbook) throws IOException {
+        FingerprintSet seen = job.reconcile() ? new FingerprintSet() : null;
+        DirectWrites writes = new DirectWrites(job.findingIndex(), runbook);
+        Parsed parsed = parseBatches(job, source, seen, writes);
+        if (writes.failed > 0) {
+            throw new IllegalStateException(writes.failed + " of " + parsed.findings() + " findings of event " + job.eventId() + " could not be indexed");
+        }
+        int closed = seen != null ? reconcile(job, seen, parsed.toolNames()) : 0;
+        return new IngestSummary(job.eventId(), job.tenantId(), job.toolType(), parsed.findings(), writes.indexed, closed,
+                parsed.contentDigest());
+    }
+
+    // Batch listener counterpart of ingest(): the file's batches go into the poll's shared writer for
+    // its index, and the ids are collected into ids for the listener to publish. At most
+    // MAX_WAITING_BATCHES of the file's batches wait for their ids at once, so memory stays bounded
+    // per file. Fails when any finding could not be indexed.
+    public IngestSummary ingestShared(ParseJob job, SharedBulkWriter writer, List<String> ids) throws IOException {
+        FingerprintSet seen = job.reconcile() ? new FingerprintSet() : null;
+        SharedWrites writes = new SharedWrites(writer, ids);
+        String fileKey = ProcessedFileStore.fileKey(job.file());
+        Parsed parsed;
+        try (InputStream in = Files.newInputStream(job.file())) {
+            parsed = parseBatches(job, in, seen, writes);
+        }
+        processedFiles.rememberFile(fileKey, parsed.contentDigest());
+        writes.drain();
+        if (writes.failed > 0) {
+            throw new IllegalStateException(writes.failed + " of " + parsed.findings() + " findings from " + job.file() + " could not be indexed");
+        }
+        int closed = seen != null ? reconcile(job, seen, parsed.toolNames()) : 0;
+        return new IngestSummary(job.eventId(), job.tenantId(), job.toolType(), parsed.findings(), ids.size(), closed,
+                parsed.contentDigest());
+    }
+
+    // One per index and batch poll, shared by the files of the poll that write to that index.
+    public SharedBulkWriter sharedWriter(String findingIndex) {
+        return new SharedBulkWriter(findings -> upsertAsync(findings, findingIndex), batchSize);
+    }
+
+    // Streams the export into the handler one batch at a time. The raw bytes are digested on the way
+    // through, so the file is read exactly once.
+    private Parsed parseBatches(ParseJob job, InputStream source, FingerprintSet seen, BatchHandler handler) throws IOException {
+        ContentDigestInputStream raw = new ContentDigestInputStream(source);
+        int parsed = 0;
+        Set<String> toolNames;
+        try (InputStream in = ScanInputStreams.open(raw);
+             FindingIterator findings = parserService.stream(job.toolType(), in)) {
+            List<Finding> batch;
+            long parseNanos = 0;
+            long start = System.nanoTime();
+            while (!(batch = findings.nextBatch(batchSize)).isEmpty()) {
+                parsed += batch.size();
+                parseNanos += System.nanoTime() - start;
+                if (seen != null) {
+                    batch.forEach(f -> seen.add(f.getId()));
+                }
+                handler.accept(batch);
+                start = System.nanoTime();
+            }
+            parseNanos += System.nanoTime() - start;
+            metrics.recordParse(job.toolType(), parseNanos, parsed);
+            metrics.recordStringPool(job.toolType(), findings.stringPool());
+            toolNames = Set.copyOf(findings.toolNames());
+            System.out.printf("Parsed %d findings for tenant=%d (string pool hit rate %.1f%%)%n",
+                    parsed, job.tenantId(), findings.stringPool().hitRate() * 100);
+        }
+        String digest = raw.finish();
+        if (job.file() != null) {
+            metrics.recordFileRead(job.toolType(), raw.readNanos());
+        }
+        return new Parsed(parsed, digest, toolNames);
+    }
+
+    private record Parsed(int findings, String contentDigest, Set<String> toolNames) {
+    }
+
+    private interface BatchHandler {
+        void accept(List<Finding> batch) throws IOException;
+    }
+
+    // Upserts each batch as soon as it is parsed.
+    private class DirectWrites implements BatchHandler {
+        private final String findingIndex;
+        private final RunbookDispatcher.Publication runbook;
+        private int indexed;
+        private int failed;
+
+        private DirectWrites(String findingIndex, RunbookDispatcher.Publication runbook) {
+            this.findingIndex = findingIndex;
+            this.runbook = runbook;
+        }
+
+        @Override
+        public void accept(List<Finding> batch) throws IOException {
+            List<String> batchIds = new ArrayList<>(batch.size());
+            for (String id : elasticsearchService.upsertFindings(batch, findingIndex)) {
+                if (id == null) {
+                    failed++;
+                } else {
+                    batchIds.add(id);
+                }
+            }
+            indexed += batchIds.size();
+            runbook.add(batchIds);
+        }
+    }
+
+    // Hands each batch to the shared writer and collects the ids of the oldest ones as more arrive.
+    private static class SharedWrites implements BatchHandler {
+        private final SharedBulkWriter writer;
+        private final List<String> ids;
+        private final ArrayDeque<CompletableFuture<List<String>>> waiting = new ArrayDeque<>();
+        private int failed;
+
+        private SharedWrites(SharedBulkWriter writer, List<String> ids) {
+            this.writer = writer;
+            this.ids = ids;
+        }
+
+        @Override
+        public void accept(List<Finding> batch) {
+            waiting.add(writer.add(batch));
+            while (waiting.size() > MAX_WAITING_BATCHES) {
+                collect();
+            }
+        }
+
+        private void drain() {
+            while (!waiting.isEmpty()) {
+                collect();
+            }
+        }
+
+        private void collect() {
+            CompletableFuture<List<String>> oldest = waiting.poll();
+            if (!oldest.isDone()) {
+                // The rest of its bulk request may never fill up, so send it now
+                writer.flush();
+            }
+            for (String id : oldest.join()) {
+                if (id == null) {
+                    failed++;
+                } else {
+                    ids.add(id);
+                }
+            }
+        }
+    }
+
+    // An export posted over HTTP instead of a file on the shared volume; it gets its own event id for
+    // the ack. Returns null for an unknown tenant.
+    public ParseJob uploadJob(Integer tenantId, ToolType toolType, boolean reconcile) {
+        Optional<Tenant> tenant = tenantCache.findById(tenantId);
+        if (tenant.isEmpty()) {
+            return null;
+        }
+        return new ParseJob(UUID.randomUUID().toString(), tenantId, tenant.get().getFindingindex(), toolType, null, reconcile);
+    }
+
+    // Same outcome as process() for a file: SUCCESS ack and runbook chunks, or a FAIL ack.
+    // Uploads are not checked against the processed-file store, that would need the whole body first.
+    public IngestSummary processUpload(ParseJob job, InputStream body) throws IOException {
+        RunbookDispatcher.Publication runbook = runbookDispatcher.open(job.tenantId());
+        IngestSummary summary;
+        try {
+            summary = ingest(job, body, runbook);
+        } catch (IOException | RuntimeException e) {
+            runbook.abort();
+            fail(job.eventId());
+            throw e;
+        }
+        sendAck(job.eventId(), "SUCCESS");
+        runbook.finish();
+        return summary;
+    }
+
+    // Closes the findings of the job's tool that this full re-scan no longer reports. Every SARIF
+    // producer shares one tool type, so a SARIF log only reconciles the tools (driver names) it
+    // contains; a log with no runs closes nothing.
+    public int reconcile(ParseJob job, FingerprintSet seen, Set<String> toolNames) throws IOException {
+        Set<String> scope = job.toolType() == ToolType.SARIF ? toolNames : null;
+        if (scope != null && scope.isEmpty()) {
+            return 0;
+        }
+        int closed = elasticsearchService.closeVanishedFindings(job.findingIndex(), job.toolType(), scope, seen);
+        metrics.recordReconcile(job.toolType(), closed);
+        System.out.println("Closed " + closed + " vanished findings for tenant=" + job.tenantId() + " toolType=" + job.toolType());
+        return closed;
+    }
+
+    // Upserts findings in chunks of the configured bulk size through the async client's in-flight
+    // window; the ids are combined in input order once all chunks have completed, failed items null.
+    public CompletableFuture<List<String>> upsertAsync(List<Finding> findings, String findingIndex) {
+        List<CompletableFuture<List<String>>> chunks = new ArrayList<>();
+        for (int from = 0; from < findings.size(); from += batchSize) {
+            List<Finding> batch = findings.subList(from, Math.min(from + batchSize, findings.size()));
+            chunks.add(asyncElasticsearchService.upsertFindings(batch, findingIndex));
+        }
+        return CompletableFuture.allOf(chunks.toArray(new CompletableFuture[0])).thenApply(done -> {
+            List<String> ids = new ArrayList<>(findings.size());
+            for (CompletableFuture<List<String>> chunk : chunks) {
+                ids.addAll(chunk.join());
+            }
+            return ids;
+        });
+    }
+
+    public void complete(ParseJob job, List<String> findingIds) {
+        sendAck(job.eventId(), "SUCCESS");
+        runbookDispatcher.schedule(job.tenantId(), findingIds);
+    }
+
+    public void fail(String eventId) {
+        sendAck(eventId, "FAIL");
+    }
+
+    private void sendAck(String originalEventId, String status) {
+        AcknowledgementPayload ackPayload = new AcknowledgementPayload(originalEventId, status);
+        AcknowledgementEvent ackEvent = new AcknowledgementEvent(null, ackPayload);
+        CompletableFuture<?> sent = metrics.timeSend("ack", ackTemplate.send(ackTopic, ackEvent));
+        if (!ackTemplate.inTransaction()) {
+            // The event's offset is committed once we return, so make sure the broker has the ack first
+            sent.join();
+        }
+        System.out.println("sent ack from parser");
+    }
+
+    private ToolType mapToolType(String toolName) {
+        if (toolName == null) {
+            return ToolType.CODESCAN;
+        }
+        switch (toolName) {
+            case "CODESCAN":
+                return ToolType.CODESCAN;
+            case "DEPENDABOT":
+                return ToolType.DEPENDABOT;
+            case "SECRETSCAN":
+                return ToolType.SECRETSCAN;
+            case "SARIF":
+                return ToolType.SARIF;
+            default:
+                return ToolType.CODESCAN;
+        }
+    }
+}
@@ -1,119 +1,51 @@
 package com.parser.Parser.Application.service;
 
+import com.fasterxml.jackson.core.JsonLocation;
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.parser.Parser.Application.model.Finding;
 import com.parser.Parser.Application.model.ToolType;
-import com.parser.Parser.Application.service.mappers.CodeScanMapper;
-import com.parser.Parser.Application.service.mappers.DependabotMapper;
-import com.parser.Parser.Application.service.mappers.SecretScanMapper;
+import com.parser.Parser.Application.service.mappers.AlertMapper;
+import com.parser.Parser.Application.service.mappers.MapperRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.time.Instant;
 import java.util.*;
 
 @Service
 public class ParserService {
 
-    private final ObjectMapper objectMapper = new ObjectMapper();
-    private final CodeScanMapper codeScanMapper = new CodeScanMapper();
-    private final DependabotMapper dependabotMapper = new DependabotMapper();
-    private final SecretScanMapper secretScanMapper = new SecretScanMapper();
-
-    public List<Finding> parse(ToolType toolType, String rawJson) {
-        switch (toolType) {
-            case CODESCAN:
-                return parseCodeScan(rawJson);
-            case DEPENDABOT:
-                return parseDependabot(rawJson);
-            case SECRETSCAN:
-                return parseSecretScan(rawJson);
-            default:
-                return Collections.emptyList();
-        }
-    }
-
-    private List<Finding> parseCodeScan(String rawJson) {
-        List<Finding> findings = new ArrayList<>();
-        try {
-            JsonNode root = objectMapper.readTree(rawJson);
-
-            if (root.isArray()) {
-                for (JsonNode alert : root) {
-                    findings.add(buildFindingFromCodeScan(alert));
-                }
-            } else {
-                findings.add(buildFindingFromCodeScan(root));
-            }
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
-        return findings;
-    }
-
-    private Finding buildFindingFromCodeScan(JsonNode node) {
-        Finding f = new Finding();
-        f.setToolType(ToolType.CODESCAN);
-
-        f.setId(UUID.randomUUID().toString());
+    private static final int PARSE_BATCH_SIZE = 4096;
 
-        JsonNode rule = node.path("rule");
-        f.setTitle(rule.path("name").asText("Unnamed CodeScan Alert"));
-
-        f.setDescription(rule.path("full_description").asText(""));
-
-        String dismissedReason = node.path("dismissed_reason").asText("");
-        String rawState = node.path("state").asText("open");
-        f.setStatus(codeScanMapper.mapStatus(rawState,dismissedReason));
-
-        String rawSev = rule.path("security_severity_level").asText("medium");
-        f.setSeverity(codeScanMapper.mapSeverity(rawSev));
-
-        String cve = node.path("cve").asText("");
-        f.setCve(cve);
-
-        double cvssScore = node.path("cvss").asDouble(0.0);
-        f.setCvss(cvssScore);
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final MapperRegistry mapperRegistry;
 
-        f.setUrl(node.path("html_url").asText(""));
+    @Value("${app.parser.string-pool.max-entries:4096}")
+    private int stringPoolMaxEntries = 4096;
 
-        List<String> cweList = new ArrayList<>();
-        JsonNode tags = rule.path("tags");
-        if (tags.isArray()) {
-            for (JsonNode t : tags) {
-                if (t.asText().contains("cwe/")) {
-                    cweList.add(t.asText());
-                }
-            }
-        }
-        if (!cweList.isEmpty()) {
-            f.setCwe(String.join(",", cweList));
-        }
+    // Batches below the threshold are built sequentially, larger ones in chunks on the ForkJoin pool
+    @Value("${app.parser.parallel.threshold:512}")
+    private int parallelThreshold = 512;
 
-        JsonNode loc = node.path("most_recent_instance").path("location");
-        if (!loc.isMissingNode()) {
-            String path = loc.path("path").asText("");
-            int startLine = loc.path("start_line").asInt(-1);
-            f.setLocation(path + " (line " + startLine + ")");
-        }
+    @Value("${app.parser.parallel.chunk-size:128}")
+    private int parallelChunkSize = 128;
 
-        Map<String, Object> leftover = objectMapper.convertValue(node, Map.class);
-        f.setAdditionalData(leftover);
-        f.setTicketId(null);
-        return f;
+    public ParserService(MapperRegistry mapperRegistry) {
+        this.mapperRegistry = mapperRegistry;
     }
 
-    private List<Finding> parseDependabot(String rawJson) {
+    public List<Finding> parse(ToolType toolType, String rawJson) {
         List<Finding> findings = new ArrayList<>();
-        try {
-            JsonNode root = objectMapper.readTree(rawJson);
-
-            if (root.isArray()) {
-                for (JsonNode alert : root) {
-                    findings.add(buildFindingFromDependabot(alert));
-                }
-            } else {
-                findings.add(buildFindingFromDependabot(root));
+        FindingIterator.RawSlicer slicer = (start, end) -> rawJson.substring((int) start.getCharOffset(), (int) end.getCharOffset());
+        StringPool pool = new StringPool(stringPoolMaxEntries);
+        try (FindingIterator it = iterator(toolType, objectMapper.createParser(rawJson), slicer, pool)) {
+            List<Finding> batch;
+            while (!(batch = it.nextBatch(PARSE_BATCH_SIZE)).isEmpty()) {
+                findings.addAll(batch);
             }
         } catch (Exception e) {
             e.printStackTrace();
@@ -121,93 +53,49 @@ public class ParserService {
         return findings;
     }
 
-    private Finding buildFindingFromDependabot(JsonNode node) {
-        Finding f = new Finding();
-        f.setToolType(ToolType.DEPENDABOT);
-
-        f.setId(UUID.randomUUID().toString());
-
-        JsonNode advisory = node.path("security_advisory");
-        f.setTitle(advisory.path("summary").asText("Unnamed Dependabot Alert"));
-        f.setDescription(advisory.path("description").asText(""));
-
-        String dismissedReason = node.path("dismissed_reason").asText("");
-        String rawState = node.path("state").asText("open");
-        f.setStatus(dependabotMapper.mapStatus(rawState,dismissedReason));
-
-        String rawSev = advisory.path("severity").asText("medium");
-        f.setSeverity(dependabotMapper.mapSeverity(rawSev));
-
-        f.setUrl(node.path("html_url").asText(""));
-
-        f.setCve(advisory.path("cve_id").asText(""));
-
-        JsonNode cwes = advisory.path("cwes");
-        if (cwes.isArray() && cwes.size() > 0) {
-            JsonNode first = cwes.get(0);
-            f.setCwe(first.path("cwe_id").asText(""));
-        }
-
-        double cvssScore = advisory.path("cvss").path("score").asDouble(0.0);
-        f.setCvss(cvssScore);
-
-        String manifestPath = node.path("dependency").path("manifest_path").asText("");
-        f.setLocation(manifestPath);
-
-        Map<String, Object> leftover = objectMapper.convertValue(node, Map.class);
-        f.setAdditionalData(leftover);
-
-        f.setAdditionalData(leftover);
-        f.setTicketId(null);
-        return f;
-    }
-
+    public FindingIterator stream(ToolType toolType, InputStream in) throws IOException {
+        RecordingInputStream recorder = new RecordingInputStream(in);
+        FindingIterator.RawSlicer slicer = new FindingIterator.RawSlicer() {
+            @Override
+            public String slice(JsonLocation start, JsonLocation end) {
+                return recorder.sliceAndDiscard(start.getByteOffset(), end.getByteOffset());
+            }
 
-    private List<Finding> parseSecretScan(String rawJson) {
-        List<Finding> findings = new ArrayList<>();
-        try {
-            JsonNode root = objectMapper.readTree(rawJson);
-
-            if (root.isArray()) {
-                for (JsonNode alert : root) {
-                    findings.add(buildFindingFromSecretScan(alert));
-                }
-            } else {
-                findings.add(buildFindingFromSecretScan(root));
+            @Override
+            public void discardTo(JsonLocation end) {
+                recorder.discardTo(end.getByteOffset());
             }
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
-        return findings;
+        };
+        StringPool pool = new StringPool(stringPoolMaxEntries);
+        return iterator(toolType, objectMapper.createParser(recorder), slicer, pool);
     }
 
-    private Finding buildFindingFromSecretScan(JsonNode node) {
-        Finding f = new Finding();
-        f.setToolType(ToolType.SECRETSCAN);
-
-        f.setId(UUID.randomUUID().toString());
-
-        f.setTitle(node.path("secret_type_display_name").asText("Secret Alert"));
-
-        f.setDescription("Exposed secret of type: " + node.path("secret_type").asText(""));
-
-        String rawState = node.path("state").asText("open");
-        f.setStatus(secretScanMapper.mapStatus(rawState));
-
-        f.setSeverity(secretScanMapper.mapSeverity(null));
-
-        f.setUrl(node.path("html_url").asText(""));
-
-        f.setCve("");
-        f.setCwe("");
-        f.setCvss(0.0);
-
-        f.setLocation("");
+    // SARIF alerts are the results nested in runs[]; every other tool exports an array of alerts
+    private FindingIterator iterator(ToolType toolType, JsonParser parser, FindingIterator.RawSlicer slicer, StringPool pool) {
+        FindingIterator.AlertReader reader = toolType == ToolType.SARIF
+                ? new SarifAlertReader(parser, slicer)
+                : FindingIterator.topLevel(parser, slicer);
+        return new FindingIterator(parser, reader, builderFor(toolType, pool), pool);
+    }
 
-        Map<String, Object> leftover = objectMapper.convertValue(node, Map.class);
-        f.setAdditionalData(leftover);
+    private FindingBuilder builderFor(ToolType toolType, StringPool pool) {
+        AlertMapper mapper = mapperRegistry.get(toolType);
+        return new FindingBuilder((node, raw) -> buildFinding(mapper, node, raw, pool), parallelThreshold, parallelChunkSize);
+    }
 
-        f.setAdditionalData(leftover);
+    // The alert's source text becomes additionalData as is; it is only parsed into a map if read.
+    private Finding buildFinding(AlertMapper mapper, JsonNode node, String raw, StringPool pool) {
+        Finding f = mapper.map(node);
+        // Rule level text repeats across alerts of one export, keep a single copy of each value.
+        // Locations are mostly unique per alert, so pooling them would only grow the pool.
+        f.setTitle(pool.intern(f.getTitle()));
+        f.setDescription(pool.intern(f.getDescription()));
+        f.setCwe(pool.intern(f.getCwe()));
+        f.setCve(pool.intern(f.getCve()));
+        f.setToolName(pool.intern(f.getToolName()));
+        f.setToolType(mapper.toolType());
+        f.setId(FindingFingerprint.of(mapper.toolType(), mapper.alertNumber(node), f.getTitle()));
+        f.setRawAdditionalData(raw);
         f.setTicketId(null);
         return f;
     }
@@ -0,0 +1,70 @@
+package com.parser.Parser.Application.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.parser.Parser.Application.model.ToolType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+
+/**
+ * Content digests of scan files that were fully ingested, per tenant and tool type, so a
+ * re-submitted unchanged export can be acked without being parsed or indexed again.
+ * Digests are computed while a file is parsed, so before a file is read its digest can only come
+ * from an earlier read: the store also maps each file's path, size and modification time to the
+ * digest of the bytes read then. Change detection is therefore path based: the same bytes under
+ * another path, or rewritten with a new modification time, are parsed again, and the upserts then
+ * find every finding unchanged, so nothing is bulk-written. Both maps share the same bounds and
+ * retention.
+ */
+@Component
+public class ProcessedFileStore {
+
+    private final Cache<String, Boolean> digests;
+    private final Cache<String, String> files;
+
+    public ProcessedFileStore(@Value("${app.processed-files.max-entries:100000}") long maxEntries,
+                              @Value("${app.processed-files.retention:7d}") Duration retention) {
+        this.digests = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(retention)
+                .build();
+        this.files = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(retention)
+                .build();
+    }
+
+    public boolean contains(Integer tenantId, ToolType toolType, String digest) {
+        return digests.getIfPresent(key(tenantId, toolType, digest)) != null;
+    }
+
+    public void record(Integer tenantId, ToolType toolType, String digest) {
+        digests.put(key(tenantId, toolType, digest), Boolean.TRUE);
+    }
+
+    // Digest of the file as last read, or null if it was not read since it last changed.
+    public String digestOf(String fileKey) {
+        return files.getIfPresent(fileKey);
+    }
+
+    public void rememberFile(String fileKey, String digest) {
+        files.put(fileKey, digest);
+    }
+
+    // Identifies a file's current contents without reading them. Take it before opening the file:
+    // if the file changes while it is read, the key no longer matches afterwards.
+    public static String fileKey(Path file) throws IOException {
+        BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        return file.toAbsolutePath().normalize() + ":" + attributes.size() + ":" + attributes.lastModifiedTime().toMillis();
+    }
+
+    private static String key(Integer tenantId, ToolType toolType, String digest) {
+        return tenantId + ":" + toolType + ":" + digest;
+    }
+}
@@ -0,0 +1,92 @@
+package com.parser.Parser.Application.service;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Keeps the bytes handed to the JSON parser since the last discard, so the exact source of an
+ * alert can be sliced out by stream offset once the parser has finished reading it. Whoever
+ * drives the parser discards what it has moved past, including values it skipped without
+ * slicing; once a large value has been discarded the buffer shrinks back.
+ */
+class RecordingInputStream extends FilterInputStream {
+
+    private static final int INITIAL_CAPACITY = 64 * 1024;
+
+    private byte[] buffer = new byte[INITIAL_CAPACITY];
+    private long base;
+    private int length;
+
+    RecordingInputStream(InputStream in) {
+        super(in);
+    }
+
+    @Override
+    public int read() throws IOException {
+        int b = in.read();
+        if (b >= 0) {
+            ensureCapacity(1);
+            buffer[length++] = (byte) b;
+        }
+        return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        int read = in.read(b, off, len);
+        if (read > 0) {
+            ensureCapacity(read);
+            System.arraycopy(b, off, buffer, length, read);
+            length += read;
+        }
+        return read;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        throw new IOException("skip is not supported while recording");
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    // Decodes the bytes between two absolute stream offsets and drops everything before end.
+    String sliceAndDiscard(long start, long end) {
+        String slice = new String(buffer, (int) (start - base), (int) (end - start), StandardCharsets.UTF_8);
+        discardTo(end);
+        return slice;
+    }
+
+    // Drops everything before an absolute stream offset; offsets already discarded are ignored.
+    void discardTo(long offset) {
+        int drop = (int) Math.min(offset - base, length);
+        if (drop <= 0) {
+            return;
+        }
+        length -= drop;
+        base += drop;
+        if (buffer.length > INITIAL_CAPACITY && length < buffer.length / 4) {
+            byte[] trimmed = new byte[Math.max(INITIAL_CAPACITY, length * 2)];
+            System.arraycopy(buffer, drop, trimmed, 0, length);
+            buffer = trimmed;
+        } else {
+            System.arraycopy(buffer, drop, buffer, 0, length);
+        }
+    }
+
+    // Current capacity, for tests.
+    int capacity() {
+        return buffer.length;
+    }
+
+    private void ensureCapacity(int extra) {
+        if (length + extra > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, length + extra));
+        }
+    }
+}
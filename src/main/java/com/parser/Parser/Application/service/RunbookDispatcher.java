@@ -0,0 +1,189 @@
+package com.parser.Parser.Application.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.parser.Parser.Application.event.RunbookRequestEvent;
+import com.parser.Parser.Application.model.RunbookPayload;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes the RunbookRequestEvents for an ingested file after a delay of
+ * dispatch-delay-ms plus a random jitter of up to dispatch-jitter-ms, without
+ * holding the Kafka listener thread.
+ * Inside a Kafka transaction (batch listener with a transactional-id-prefix) the events are instead
+ * sent straight away through the transactional template, so it commits or aborts with the ack
+ * and the consumed offsets.
+ */
+@Component
+public class RunbookDispatcher {
+
+    private final KafkaTemplate<String, String> sendingJob;
+    private final KafkaTemplate<String, Object> transactionalTemplate;
+    private final ObjectMapper objectMapper;
+    private final IngestionMetrics metrics;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "runbook-dispatcher");
+        t.setDaemon(true);
+        return t;
+    });
+
+    @Value("${app.kafka.topics.jfcunified}")
+    private String unifiedTopic;
+
+    @Value("${app.runbook.dispatch-delay-ms:3000}")
+    private long dispatchDelayMs;
+
+    @Value("${app.runbook.dispatch-jitter-ms:3000}")
+    private long dispatchJitterMs;
+
+    @Value("${app.runbook.chunk-size:5000}")
+    private int chunkSize;
+
+    public RunbookDispatcher(KafkaTemplate<String, String> sendingJob, KafkaTemplate<String, Object> transactionalTemplate,
+                             ObjectMapper objectMapper, IngestionMetrics metrics) {
+        this.sendingJob = sendingJob;
+        this.transactionalTemplate = transactionalTemplate;
+        this.objectMapper = objectMapper;
+        this.metrics = metrics;
+    }
+
+    // Starts the runbook publication for one ingested file.
+    public Publication open(Integer tenantId) {
+        long delayMs = dispatchDelayMs + (dispatchJitterMs > 0 ? ThreadLocalRandom.current().nextLong(dispatchJitterMs) : 0);
+        return new Publication(tenantId, UUID.randomUUID().toString(), delayMs);
+    }
+
+    public void schedule(Integer tenantId, List<String> findingIds) {
+        Publication publication = open(tenantId);
+        publication.add(findingIds);
+        publication.finish();
+    }
+
+    /**
+     * The finding ids of one file, published as chunks of at most chunk-size ids that share a
+     * correlation id and are keyed by it, so they stay in order on one partition. Full chunks go
+     * out as soon as they are filled, letting consumers start on them while the rest of the file
+     * is still being indexed. finish() sends the remainder as the last chunk, which also carries
+     * the total number of chunks; abort() ends the publication of a failed file instead. Not thread
+     * safe; one publication belongs to one parse job.
+     */
+    public class Publication {
+        private final Integer tenantId;
+        private final String correlationId;
+        private final long delayMs;
+        private final List<String> pending = new ArrayList<>();
+        private final List<ScheduledFuture<?>> scheduled = new ArrayList<>();
+        private int sequence;
+        private boolean closed;
+        // Shared with the scheduler thread, guarded by the publication
+        private int sent;
+        private boolean aborted;
+
+        private Publication(Integer tenantId, String correlationId, long delayMs) {
+            this.tenantId = tenantId;
+            this.correlationId = correlationId;
+            this.delayMs = delayMs;
+        }
+
+        public void add(List<String> findingIds) {
+            if (closed) {
+                return;
+            }
+            pending.addAll(findingIds);
+            while (pending.size() >= chunkSize) {
+                List<String> chunk = new ArrayList<>(pending.subList(0, chunkSize));
+                pending.subList(0, chunkSize).clear();
+                dispatch(chunk, false, false, delayMs);
+            }
+        }
+
+        public void finish() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            dispatch(new ArrayList<>(pending), true, false, delayMs);
+            pending.clear();
+        }
+
+        // For a file that failed part way: chunks still waiting out their delay are dropped, and an
+        // empty last chunk marked failed ends the correlation id, so consumers stop waiting for more.
+        public void abort() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            pending.clear();
+            synchronized (this) {
+                aborted = true;
+                // Chunks go out in order, so the sent ones are the head and the sequence stays gapless
+                sequence = sent;
+            }
+            for (ScheduledFuture<?> chunk : scheduled) {
+                chunk.cancel(false);
+            }
+            dispatch(new ArrayList<>(), true, true, 0);
+        }
+
+        private void dispatch(List<String> findingIds, boolean last, boolean failed, long delay) {
+            RunbookPayload payload = new RunbookPayload(null, tenantId, findingIds, "SCAN_EVENT");
+            payload.setCorrelationId(correlationId);
+            payload.setChunkSequence(sequence++);
+            payload.setLastChunk(last);
+            payload.setFailed(failed);
+            if (last) {
+                payload.setTotalChunks(sequence);
+            }
+            RunbookRequestEvent event = new RunbookRequestEvent(payload);
+            if (transactionalTemplate.inTransaction()) {
+                metrics.timeSend("runbook", transactionalTemplate.send(unifiedTopic, correlationId, event));
+                synchronized (this) {
+                    sent++;
+                }
+                return;
+            }
+            // Chunks of a publication wait the same delay (a failed last chunk none, after the rest
+            // were dropped), so the single scheduler thread keeps them in order
+            scheduled.add(scheduler.schedule(() -> deliver(event), delay, TimeUnit.MILLISECONDS));
+        }
+
+        // A chunk still waiting when the file failed is dropped, even if abort() could not cancel it in time.
+        private synchronized void deliver(RunbookRequestEvent event) {
+            if (aborted && !event.getPayload().isFailed()) {
+                return;
+            }
+            send(event);
+            sent++;
+        }
+    }
+
+    private void send(RunbookRequestEvent event) {
+        RunbookPayload payload = event.getPayload();
+        try {
+            String json = objectMapper.writeValueAsString(event);
+            metrics.timeSend("runbook", sendingJob.send(unifiedTopic, payload.getCorrelationId(), json));
+            System.out.println("Sent " + (payload.isFailed() ? "failed " : "") + "RunbookEvent chunk " + payload.getChunkSequence() + " for tenant=" + payload.getTenantId());
+        } catch (JsonProcessingException e) {
+            e.printStackTrace();
+        }
+    }
+
+    // Already scheduled runbooks are still delivered on a graceful shutdown.
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        scheduler.shutdown();
+        scheduler.awaitTermination(dispatchDelayMs + dispatchJitterMs + 5000, TimeUnit.MILLISECONDS);
+    }
+}
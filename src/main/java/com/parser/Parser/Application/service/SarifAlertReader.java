@@ -0,0 +1,207 @@
+package com.parser.Parser.Application.service;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.NullNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * Streams the results of a SARIF 2.1.0 log. Only runs[].tool (with its rules tables) is read as
+ * a tree; runs[].results[] is walked one result at a time, and everything else is skipped.
+ * Each result is handed on as {"result": ..., "rule": ..., "tool": driver name}, with the rule
+ * resolved through ruleIndex / rule.index (on the driver or, via rule.toolComponent.index, an
+ * extension) or else by ruleId. The raw text passed through is the result itself.
+ * Producers write tool before results; for a run that has them the other way round, its results
+ * are held until the run's tool has been read. Source text of skipped values and of the tool is
+ * discarded as soon as it has been read, so the recorded input never holds more than one value.
+ */
+class SarifAlertReader implements FindingIterator.AlertReader {
+
+    private enum State { START, ROOT, RUNS, RUN, RESULTS, END }
+
+    private final JsonParser parser;
+    private final FindingIterator.RawSlicer slicer;
+    private final ArrayDeque<FindingBuilder.RawAlert> ready = new ArrayDeque<>();
+    private final Set<String> toolNames = new LinkedHashSet<>();
+    private State state = State.START;
+    private Run run;
+
+    SarifAlertReader(JsonParser parser, FindingIterator.RawSlicer slicer) {
+        this.parser = parser;
+        this.slicer = slicer;
+    }
+
+    @Override
+    public FindingBuilder.RawAlert next() throws IOException {
+        while (true) {
+            if (!ready.isEmpty()) {
+                return ready.poll();
+            }
+            switch (state) {
+                case START -> {
+                    JsonToken first = parser.nextToken();
+                    if (first == null) {
+                        state = State.END;
+                    } else if (first != JsonToken.START_OBJECT) {
+                        throw new JsonParseException(parser, "A SARIF log must be a JSON object");
+                    } else {
+                        state = State.ROOT;
+                    }
+                }
+                case ROOT -> {
+                    String field = nextField();
+                    if (field == null) {
+                        state = State.END;
+                    } else if (field.equals("runs") && parser.currentToken() == JsonToken.START_ARRAY) {
+                        state = State.RUNS;
+                    } else {
+                        skipValue();
+                    }
+                }
+                case RUNS -> {
+                    JsonToken token = parser.nextToken();
+                    if (token == JsonToken.END_ARRAY) {
+                        state = State.ROOT;
+                    } else if (token == JsonToken.START_OBJECT) {
+                        run = new Run();
+                        state = State.RUN;
+                    } else {
+                        skipValue();
+                    }
+                }
+                case RUN -> {
+                    String field = nextField();
+                    if (field == null) {
+                        // End of the run: anything still held back is resolved with whatever rules it had
+                        run.releasePending();
+                        toolNames.add(run.toolName);
+                        run = null;
+                        state = State.RUNS;
+                    } else if (field.equals("tool") && parser.currentToken() == JsonToken.START_OBJECT) {
+                        run.setTool(parser.readValueAsTree());
+                        slicer.discardTo(parser.currentLocation());
+                        run.releasePending();
+                    } else if (field.equals("results") && parser.currentToken() == JsonToken.START_ARRAY) {
+                        state = State.RESULTS;
+                    } else {
+                        skipValue();
+                    }
+                }
+                case RESULTS -> {
+                    JsonToken token = parser.nextToken();
+                    if (token == JsonToken.END_ARRAY) {
+                        state = State.RUN;
+                    } else if (token == JsonToken.START_OBJECT) {
+                        FindingBuilder.RawAlert result = FindingIterator.readAlert(parser, slicer);
+                        if (run.toolRead) {
+                            return run.resolve(result);
+                        }
+                        run.pending.add(result);
+                    } else {
+                        skipValue();
+                    }
+                }
+                case END -> {
+                    return null;
+                }
+            }
+        }
+    }
+
+    // Driver names of the runs read so far, runs without results included.
+    @Override
+    public Set<String> toolNames() {
+        return Collections.unmodifiableSet(toolNames);
+    }
+
+    // Skips the current value and lets go of its source, so nothing outside the results is kept.
+    private void skipValue() throws IOException {
+        parser.skipChildren();
+        slicer.discardTo(parser.currentLocation());
+    }
+
+    // Moves to the next field of the current object and onto its value; null at the end of the object.
+    private String nextField() throws IOException {
+        JsonToken token = parser.nextToken();
+        if (token != JsonToken.FIELD_NAME) {
+            return null;
+        }
+        String name = parser.currentName();
+        parser.nextToken();
+        return name;
+    }
+
+    private class Run {
+        private final List<JsonNode> driverRules = new ArrayList<>();
+        private final List<List<JsonNode>> extensionRules = new ArrayList<>();
+        private final Map<String, JsonNode> rulesById = new HashMap<>();
+        private final List<FindingBuilder.RawAlert> pending = new ArrayList<>();
+        private String toolName = "";
+        private boolean toolRead;
+
+        void setTool(JsonNode tool) {
+            JsonNode driver = tool.path("driver");
+            toolName = driver.path("name").asText("");
+            collect(driver.path("rules"), driverRules);
+            for (JsonNode extension : tool.path("extensions")) {
+                List<JsonNode> rules = new ArrayList<>();
+                collect(extension.path("rules"), rules);
+                extensionRules.add(rules);
+            }
+            toolRead = true;
+        }
+
+        private void collect(JsonNode rules, List<JsonNode> table) {
+            for (JsonNode rule : rules) {
+                table.add(rule);
+                String id = rule.path("id").asText(null);
+                if (id != null) {
+                    rulesById.putIfAbsent(id, rule);
+                }
+            }
+        }
+
+        void releasePending() {
+            for (FindingBuilder.RawAlert result : pending) {
+                ready.add(resolve(result));
+            }
+            pending.clear();
+        }
+
+        FindingBuilder.RawAlert resolve(FindingBuilder.RawAlert result) {
+            JsonNode rule = ruleFor(result.node());
+            ObjectNode alert = JsonNodeFactory.instance.objectNode();
+            alert.set("result", result.node());
+            alert.set("rule", rule == null ? NullNode.getInstance() : rule);
+            alert.put("tool", toolName);
+            return new FindingBuilder.RawAlert(alert, result.raw());
+        }
+
+        private JsonNode ruleFor(JsonNode result) {
+            JsonNode reference = result.path("rule");
+            int component = reference.path("toolComponent").path("index").asInt(-1);
+            List<JsonNode> table = component >= 0 && component < extensionRules.size() ? extensionRules.get(component) : driverRules;
+            int index = result.has("ruleIndex") ? result.path("ruleIndex").asInt(-1) : reference.path("index").asInt(-1);
+            if (index >= 0 && index < table.size()) {
+                return table.get(index);
+            }
+            String id = result.path("ruleId").asText(reference.path("id").asText(null));
+            if (id == null) {
+                return null;
+            }
+            JsonNode rule = rulesById.get(id);
+            // Hierarchical ids ("parent/child") may only have the parent described
+            int slash = id.lastIndexOf('/');
+            if (rule == null && slash > 0) {
+                rule = rulesById.get(id.substring(0, slash));
+            }
+            return rule;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.parser.Parser.Application.service;
+
+import com.github.luben.zstd.ZstdInputStream;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Opens scan exports for streaming into the parser. Gzip and zstd input is recognised by its
+ * magic bytes and decompressed on the fly, anything else is passed through as is.
+ */
+public final class ScanInputStreams {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private ScanInputStreams() {
+    }
+
+    public static InputStream open(Path file) throws IOException {
+        return open(Files.newInputStream(file));
+    }
+
+    public static InputStream open(InputStream raw) throws IOException {
+        BufferedInputStream in = new BufferedInputStream(raw, BUFFER_SIZE);
+        try {
+            in.mark(4);
+            byte[] magic = in.readNBytes(4);
+            in.reset();
+            if (isGzip(magic)) {
+                return new BufferedInputStream(new GZIPInputStream(in, BUFFER_SIZE), BUFFER_SIZE);
+            }
+            if (isZstd(magic)) {
+                return new BufferedInputStream(new ZstdInputStream(in), BUFFER_SIZE);
+            }
+            return in;
+        } catch (IOException e) {
+            in.close();
+            throw e;
+        }
+    }
+
+    private static boolean isGzip(byte[] magic) {
+        return magic.length >= 2 && (magic[0] & 0xff) == 0x1f && (magic[1] & 0xff) == 0x8b;
+    }
+
+    private static boolean isZstd(byte[] magic) {
+        return magic.length >= 4
+                && (magic[0] & 0xff) == 0x28 && (magic[1] & 0xff) == 0xb5
+                && (magic[2] & 0xff) == 0x2f && (magic[3] & 0xff) == 0xfd;
+    }
+}
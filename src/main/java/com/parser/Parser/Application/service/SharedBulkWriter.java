@@ -0,0 +1,86 @@
+package com.parser.Parser.Application.service;
+
+import com.parser.Parser.Application.model.Finding;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * Collects the findings that the jobs of one batch poll write to the same index, so files parsed
+ * concurrently share bulk requests. Pending findings are sent once flush-size of them have been
+ * added, or earlier when a job calls flush() before waiting for its own ids. Each add() gets back
+ * the ids of exactly its findings, in order, with failed items null.
+ * A failed request fails every add() it carried and is kept as failure() for the poll.
+ */
+public class SharedBulkWriter {
+
+    private record Part(int size, CompletableFuture<List<String>> ids) {
+    }
+
+    private final Function<List<Finding>, CompletableFuture<List<String>>> upsert;
+    private final int flushSize;
+    private final List<Finding> pending = new ArrayList<>();
+    private final List<Part> parts = new ArrayList<>();
+    private volatile Throwable failure;
+
+    SharedBulkWriter(Function<List<Finding>, CompletableFuture<List<String>>> upsert, int flushSize) {
+        this.upsert = upsert;
+        this.flushSize = flushSize;
+    }
+
+    public CompletableFuture<List<String>> add(List<Finding> findings) {
+        CompletableFuture<List<String>> ids = new CompletableFuture<>();
+        boolean full;
+        synchronized (this) {
+            pending.addAll(findings);
+            parts.add(new Part(findings.size(), ids));
+            full = pending.size() >= flushSize;
+        }
+        if (full) {
+            flush();
+        }
+        return ids;
+    }
+
+    // Sends whatever is pending, whichever jobs it came from.
+    public void flush() {
+        List<Finding> findings;
+        List<Part> owners;
+        synchronized (this) {
+            if (parts.isEmpty()) {
+                return;
+            }
+            findings = new ArrayList<>(pending);
+            owners = new ArrayList<>(parts);
+            pending.clear();
+            parts.clear();
+        }
+        CompletableFuture<List<String>> written;
+        try {
+            written = upsert.apply(findings);
+        } catch (RuntimeException e) {
+            written = CompletableFuture.failedFuture(e);
+        }
+        written.whenComplete((ids, error) -> {
+            if (error != null && failure == null) {
+                failure = error;
+            }
+            int offset = 0;
+            for (Part part : owners) {
+                if (error != null) {
+                    part.ids().completeExceptionally(error);
+                } else {
+                    part.ids().complete(new ArrayList<>(ids.subList(offset, offset + part.size())));
+                }
+                offset += part.size();
+            }
+        });
+    }
+
+    // The first request that failed as a whole, or null.
+    public Throwable failure() {
+        return failure;
+    }
+}
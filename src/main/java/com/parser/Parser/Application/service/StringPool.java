@@ -0,0 +1,53 @@
+package com.parser.Parser.Application.service;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Deduplicates repeated field values while one file is parsed, so findings that share a rule
+ * title or description point at a single String. Lives only as long as the parse; it is safe to
+ * share between the threads building one batch. Once maxEntries distinct values are held, new
+ * values pass through unpooled.
+ */
+public class StringPool {
+
+    private final ConcurrentHashMap<String, String> values = new ConcurrentHashMap<>();
+    private final int maxEntries;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public StringPool(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    public String intern(String value) {
+        if (value == null) {
+            return null;
+        }
+        String pooled = values.get(value);
+        if (pooled != null) {
+            hits.increment();
+            return pooled;
+        }
+        misses.increment();
+        if (values.size() < maxEntries) {
+            pooled = values.putIfAbsent(value, value);
+            return pooled != null ? pooled : value;
+        }
+        return value;
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    public double hitRate() {
+        long h = hits.sum();
+        long lookups = h + misses.sum();
+        return lookups == 0 ? 0.0 : (double) h / lookups;
+    }
+}
@@ -0,0 +1,70 @@
+package com.parser.Parser.Application.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.parser.Parser.Application.model.Tenant;
+import com.parser.Parser.Application.repository.TenantRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Read-through cache in front of TenantRepository. Unknown tenant ids are cached too, for the
+ * shorter negative TTL, so a stream of events for a deleted tenant does not hit MySQL either.
+ */
+@Component
+public class TenantCache {
+
+    private final TenantRepository tenantRepository;
+    private final Cache<Integer, Optional<Tenant>> cache;
+
+    public TenantCache(TenantRepository tenantRepository,
+                       @Value("${app.tenant-cache.max-size:10000}") long maxSize,
+                       @Value("${app.tenant-cache.ttl:10m}") Duration ttl,
+                       @Value("${app.tenant-cache.negative-ttl:1m}") Duration negativeTtl) {
+        this.tenantRepository = tenantRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<Integer, Optional<Tenant>>() {
+                    @Override
+                    public long expireAfterCreate(Integer id, Optional<Tenant> tenant, long currentTime) {
+                        return (tenant.isPresent() ? ttl : negativeTtl).toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(Integer id, Optional<Tenant> tenant, long currentTime, long currentDuration) {
+                        return expireAfterCreate(id, tenant, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(Integer id, Optional<Tenant> tenant, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+    }
+
+    public Optional<Tenant> findById(Integer tenantId) {
+        if (tenantId == null) {
+            return Optional.empty();
+        }
+        return cache.get(tenantId, tenantRepository::findById);
+    }
+
+    public void invalidate(Integer tenantId) {
+        cache.invalidate(tenantId);
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+}
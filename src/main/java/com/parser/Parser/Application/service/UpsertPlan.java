@@ -0,0 +1,114 @@
+package com.parser.Parser.Application.service;
+
+import com.parser.Parser.Application.model.Finding;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The dedup decisions for one batch of upserts, shared by ElasticsearchService and
+ * AsyncElasticsearchService so both write exactly the same findings. Alerts whose severity/status
+ * digest is already cached are resolved on construction; the caller fetches the current documents
+ * of lookupIds() (however it talks to ES), gets the findings to write from toWrite() and hands the
+ * bulk result to complete(). Ids come back in input order, failed items null.
+ */
+final class UpsertPlan {
+
+    private final List<Finding> findings;
+    private final String indexName;
+    private final FindingDedupCache dedupCache;
+    private final List<String> ids;
+    private final List<String> digests;
+    private final List<Integer> pending = new ArrayList<>();
+    private final List<String> lookupIds;
+    private final List<Integer> positions = new ArrayList<>();
+    private int unchanged;
+    private int changed;
+
+    UpsertPlan(List<Finding> findings, String indexName, FindingDedupCache dedupCache) {
+        this.findings = findings;
+        this.indexName = indexName;
+        this.dedupCache = dedupCache;
+        this.ids = new ArrayList<>(Collections.nCopies(findings.size(), null));
+        this.digests = new ArrayList<>(findings.size());
+        List<String> uncached = new ArrayList<>();
+        for (int i = 0; i < findings.size(); i++) {
+            Finding finding = findings.get(i);
+            String fingerprint = FindingFingerprint.idOf(finding);
+            String digest = ElasticsearchService.severityStatusDigest(finding);
+            digests.add(digest);
+            FindingDedupCache.Entry cached = dedupCache.get(indexName, fingerprint);
+            if (cached != null && cached.digest().equals(digest)) {
+                ids.set(i, cached.documentId());
+                unchanged++;
+                continue;
+            }
+            finding.setId(fingerprint);
+            pending.add(i);
+            if (cached == null) {
+                uncached.add(fingerprint);
+            } else {
+                changed++;
+            }
+        }
+        this.lookupIds = uncached.stream().distinct().toList();
+    }
+
+    // True when the cache settled every finding, so there is nothing to look up or write.
+    boolean resolved() {
+        return pending.isEmpty();
+    }
+
+    // Fingerprints the cache knows nothing about; their current documents decide new vs changed.
+    List<String> lookupIds() {
+        return lookupIds;
+    }
+
+    // The new and changed findings, given the current documents of lookupIds() (absent ones are new).
+    List<Finding> toWrite(Map<String, Finding> existing) {
+        List<Finding> toWrite = new ArrayList<>();
+        for (int i : pending) {
+            Finding finding = findings.get(i);
+            Finding found = existing.get(finding.getId());
+            if (found != null && ElasticsearchService.severityStatusDigest(found).equals(digests.get(i))) {
+                dedupCache.put(indexName, finding.getId(), finding.getId(), digests.get(i));
+                ids.set(i, finding.getId());
+                unchanged++;
+                continue;
+            }
+            if (found != null) {
+                changed++;
+            }
+            finding.setUpdatedAt(Instant.now().toString());
+            toWrite.add(finding);
+            positions.add(i);
+        }
+        return toWrite;
+    }
+
+    // Takes the ids of the written findings (null where the write failed) and caches the successful ones.
+    List<String> complete(List<String> written) {
+        for (int i = 0; i < written.size(); i++) {
+            int position = positions.get(i);
+            String id = written.get(i);
+            ids.set(position, id);
+            if (id != null) {
+                dedupCache.put(indexName, findings.get(position).getId(), id, digests.get(position));
+            }
+        }
+        return ids;
+    }
+
+    List<String> ids() {
+        return ids;
+    }
+
+    void recordDedup(IngestionMetrics metrics) {
+        metrics.recordDedup("unchanged", unchanged);
+        metrics.recordDedup("changed", changed);
+        metrics.recordDedup("new", positions.size() - changed);
+    }
+}
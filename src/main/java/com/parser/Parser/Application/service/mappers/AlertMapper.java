@@ -0,0 +1,38 @@
+package com.parser.Parser.Application.service.mappers;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.parser.Parser.Application.model.Finding;
+import com.parser.Parser.Application.model.ToolType;
+
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Extraction plan for one tool's alerts. Implementations compile their JSON pointers and
+ * status/severity tables once; ParserService runs map() per alert and fills in the fields
+ * shared by every tool (id, tool type, additionalData).
+ */
+public interface AlertMapper {
+
+    ToolType toolType();
+
+    Finding map(JsonNode alert);
+
+    // Stable per-tool alert key that goes into the fingerprint id.
+    default String alertNumber(JsonNode alert) {
+        return alert.path("number").asText("");
+    }
+
+    // Tables are keyed in lower case; the exact value is tried first so the usual
+    // lower-case input costs no allocation.
+    static <V> V lookup(Map<String, V> table, String raw, V fallback) {
+        if (raw == null) {
+            return fallback;
+        }
+        V value = table.get(raw);
+        if (value == null) {
+            value = table.get(raw.toLowerCase(Locale.ROOT));
+        }
+        return value == null ? fallback : value;
+    }
+}
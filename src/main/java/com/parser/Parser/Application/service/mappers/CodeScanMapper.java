@@ -1,58 +1,106 @@
 package com.parser.Parser.Application.service.mappers;
 
+import com.fasterxml.jackson.core.JsonPointer;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.parser.Parser.Application.model.Finding;
 import com.parser.Parser.Application.model.Severity;
 import com.parser.Parser.Application.model.Status;
+import com.parser.Parser.Application.model.ToolType;
+import org.springframework.stereotype.Component;
 
-public class CodeScanMapper {
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+@Component
+public class CodeScanMapper implements AlertMapper {
+
+    private static final JsonPointer RULE_NAME = JsonPointer.compile("/rule/name");
+    private static final JsonPointer RULE_DESCRIPTION = JsonPointer.compile("/rule/full_description");
+    private static final JsonPointer RULE_SEVERITY = JsonPointer.compile("/rule/security_severity_level");
+    private static final JsonPointer RULE_TAGS = JsonPointer.compile("/rule/tags");
+    private static final JsonPointer STATE = JsonPointer.compile("/state");
+    private static final JsonPointer DISMISSED_REASON = JsonPointer.compile("/dismissed_reason");
+    private static final JsonPointer CVE = JsonPointer.compile("/cve");
+    private static final JsonPointer CVSS = JsonPointer.compile("/cvss");
+    private static final JsonPointer HTML_URL = JsonPointer.compile("/html_url");
+    private static final JsonPointer LOCATION = JsonPointer.compile("/most_recent_instance/location");
+
+    private static final Map<String, Status> STATES = Map.of(
+            "open", Status.OPEN,
+            "fixed", Status.FIXED,
+            "closed", Status.FIXED
+    );
+    private static final Map<String, Status> DISMISSED_REASONS = Map.of(
+            "false positive", Status.FALSE_POSITIVE,
+            "won't fix", Status.SUPPRESSED,
+            "used in tests", Status.SUPPRESSED
+    );
+    private static final Map<String, Severity> SEVERITIES = Map.of(
+            "critical", Severity.CRITICAL,
+            "high", Severity.HIGH,
+            "error", Severity.HIGH,
+            "medium", Severity.MEDIUM,
+            "warning", Severity.MEDIUM,
+            "low", Severity.LOW,
+            "note", Severity.LOW
+    );
+
+    @Override
+    public ToolType toolType() {
+        return ToolType.CODESCAN;
+    }
+
+    @Override
+    public Finding map(JsonNode node) {
+        Finding f = new Finding();
+        f.setTitle(node.at(RULE_NAME).asText("Unnamed CodeScan Alert"));
+        f.setDescription(node.at(RULE_DESCRIPTION).asText(""));
+
+        String dismissedReason = node.at(DISMISSED_REASON).asText("");
+        String rawState = node.at(STATE).asText("open");
+        f.setStatus(mapStatus(rawState,dismissedReason));
+
+        String rawSev = node.at(RULE_SEVERITY).asText("medium");
+        f.setSeverity(mapSeverity(rawSev));
+
+        f.setCve(node.at(CVE).asText(""));
+        f.setCvss(node.at(CVSS).asDouble(0.0));
+        f.setUrl(node.at(HTML_URL).asText(""));
+
+        List<String> cweList = new ArrayList<>();
+        JsonNode tags = node.at(RULE_TAGS);
+        if (tags.isArray()) {
+            for (JsonNode t : tags) {
+                if (t.asText().contains("cwe/")) {
+                    cweList.add(t.asText());
+                }
+            }
+        }
+        if (!cweList.isEmpty()) {
+            f.setCwe(String.join(",", cweList));
+        }
+
+        JsonNode loc = node.at(LOCATION);
+        if (!loc.isMissingNode()) {
+            String path = loc.path("path").asText("");
+            int startLine = loc.path("start_line").asInt(-1);
+            f.setLocation(path + " (line " + startLine + ")");
+        }
+        return f;
+    }
 
     public Status mapStatus(String rawState,String dismissedReason) {
         if (rawState == null) {
             return Status.OPEN;
         }
-        String lowerState = rawState.toLowerCase();
-        String lowerReason = dismissedReason == null ? "" : dismissedReason.toLowerCase();
-        switch (lowerState) {
-            case "open":
-                return Status.OPEN;
-
-            case "dismissed":
-                switch (lowerReason) {
-                    case "false positive":
-                        return Status.FALSE_POSITIVE;
-                    case "won't fix":
-                        return Status.SUPPRESSED;
-                    case "used in tests":
-                        return Status.SUPPRESSED;
-                    default:
-                        return Status.FALSE_POSITIVE;
-                }
-
-            case "fixed":
-            case "closed":
-                return Status.FIXED;
-            default:
-                return Status.OPEN;
+        if ("dismissed".equalsIgnoreCase(rawState)) {
+            return AlertMapper.lookup(DISMISSED_REASONS, dismissedReason, Status.FALSE_POSITIVE);
         }
+        return AlertMapper.lookup(STATES, rawState, Status.OPEN);
     }
 
     public Severity mapSeverity(String rawSeverity) {
-        if (rawSeverity == null) {
-            return Severity.INFO;
-        }
-        switch (rawSeverity.toLowerCase()) {
-            case "critical":
-                return Severity.CRITICAL;
-            case "high":
-            case "error":
-                return Severity.HIGH;
-            case "medium":
-            case "warning":
-                return Severity.MEDIUM;
-            case "low":
-            case "note":
-                return Severity.LOW;
-            default:
-                return Severity.INFO;
-        }
+        return AlertMapper.lookup(SEVERITIES, rawSeverity, Severity.INFO);
     }
-}
\ No newline at end of file
+}
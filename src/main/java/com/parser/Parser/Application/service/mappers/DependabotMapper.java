@@ -1,58 +1,91 @@
 package com.parser.Parser.Application.service.mappers;
 
 
+import com.fasterxml.jackson.core.JsonPointer;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.parser.Parser.Application.model.Finding;
 import com.parser.Parser.Application.model.Severity;
 import com.parser.Parser.Application.model.Status;
+import com.parser.Parser.Application.model.ToolType;
+import org.springframework.stereotype.Component;
 
-public class DependabotMapper {
+import java.util.Map;
+
+@Component
+public class DependabotMapper implements AlertMapper {
+
+    private static final JsonPointer SUMMARY = JsonPointer.compile("/security_advisory/summary");
+    private static final JsonPointer DESCRIPTION = JsonPointer.compile("/security_advisory/description");
+    private static final JsonPointer SEVERITY = JsonPointer.compile("/security_advisory/severity");
+    private static final JsonPointer CVE_ID = JsonPointer.compile("/security_advisory/cve_id");
+    private static final JsonPointer FIRST_CWE = JsonPointer.compile("/security_advisory/cwes/0");
+    private static final JsonPointer CVSS_SCORE = JsonPointer.compile("/security_advisory/cvss/score");
+    private static final JsonPointer STATE = JsonPointer.compile("/state");
+    private static final JsonPointer DISMISSED_REASON = JsonPointer.compile("/dismissed_reason");
+    private static final JsonPointer HTML_URL = JsonPointer.compile("/html_url");
+    private static final JsonPointer MANIFEST_PATH = JsonPointer.compile("/dependency/manifest_path");
+
+    private static final Map<String, Status> STATES = Map.of(
+            "open", Status.OPEN,
+            "auto_dismissed", Status.SUPPRESSED,
+            "fixed", Status.FIXED
+    );
+    private static final Map<String, Status> DISMISSED_REASONS = Map.of(
+            "fix_started", Status.SUPPRESSED,
+            "inaccurate", Status.FALSE_POSITIVE,
+            "no_bandwidth", Status.SUPPRESSED,
+            "not_used", Status.SUPPRESSED,
+            "tolerable_risk", Status.SUPPRESSED
+    );
+    private static final Map<String, Severity> SEVERITIES = Map.of(
+            "critical", Severity.CRITICAL,
+            "high", Severity.HIGH,
+            "medium", Severity.MEDIUM,
+            "low", Severity.LOW
+    );
+
+    @Override
+    public ToolType toolType() {
+        return ToolType.DEPENDABOT;
+    }
+
+    @Override
+    public Finding map(JsonNode node) {
+        Finding f = new Finding();
+        f.setTitle(node.at(SUMMARY).asText("Unnamed Dependabot Alert"));
+        f.setDescription(node.at(DESCRIPTION).asText(""));
+
+        String dismissedReason = node.at(DISMISSED_REASON).asText("");
+        String rawState = node.at(STATE).asText("open");
+        f.setStatus(mapStatus(rawState,dismissedReason));
+
+        String rawSev = node.at(SEVERITY).asText("medium");
+        f.setSeverity(mapSeverity(rawSev));
+
+        f.setUrl(node.at(HTML_URL).asText(""));
+        f.setCve(node.at(CVE_ID).asText(""));
+
+        JsonNode firstCwe = node.at(FIRST_CWE);
+        if (!firstCwe.isMissingNode()) {
+            f.setCwe(firstCwe.path("cwe_id").asText(""));
+        }
+
+        f.setCvss(node.at(CVSS_SCORE).asDouble(0.0));
+        f.setLocation(node.at(MANIFEST_PATH).asText(""));
+        return f;
+    }
 
     public Status mapStatus(String rawState,String dismissedReason) {
         if (rawState == null) {
             return Status.OPEN;
         }
-        String lowerState = rawState.toLowerCase();
-        String lowerReason = (dismissedReason == null) ? "" : dismissedReason.toLowerCase();
-
-        switch (lowerState) {
-            case "open":
-                return Status.OPEN;
-            case "auto_dismissed":
-                return Status.SUPPRESSED;
-            case "dismissed":
-                switch (lowerReason) {
-                    case "fix_started":
-                        return Status.SUPPRESSED;
-                    case "inaccurate":
-                        return Status.FALSE_POSITIVE;
-                    case "no_bandwidth":
-                    case "not_used":
-                    case "tolerable_risk":
-                        return Status.SUPPRESSED;
-                    default:
-                        return Status.FALSE_POSITIVE;
-                }
-            case "fixed":
-                return Status.FIXED;
-            default:
-                return Status.OPEN;
+        if ("dismissed".equalsIgnoreCase(rawState)) {
+            return AlertMapper.lookup(DISMISSED_REASONS, dismissedReason, Status.FALSE_POSITIVE);
         }
+        return AlertMapper.lookup(STATES, rawState, Status.OPEN);
     }
 
     public Severity mapSeverity(String rawSeverity) {
-        if (rawSeverity == null) {
-            return Severity.INFO;
-        }
-        switch (rawSeverity.toLowerCase()) {
-            case "critical":
-                return Severity.CRITICAL;
-            case "high":
-                return Severity.HIGH;
-            case "medium":
-                return Severity.MEDIUM;
-            case "low":
-                return Severity.LOW;
-            default:
-                return Severity.INFO;
-        }
+        return AlertMapper.lookup(SEVERITIES, rawSeverity, Severity.INFO);
     }
-}
\ No newline at end of file
+}
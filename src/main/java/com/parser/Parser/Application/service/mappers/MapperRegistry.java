@@ -0,0 +1,36 @@
+package com.parser.Parser.Application.service.mappers;
+
+import com.parser.Parser.Application.model.ToolType;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Every AlertMapper bean, by the tool type it handles. Supporting a new tool means adding a
+ * ToolType constant and an AlertMapper component.
+ */
+@Component
+public class MapperRegistry {
+
+    private final Map<ToolType, AlertMapper> mappers = new EnumMap<>(ToolType.class);
+
+    public MapperRegistry(List<AlertMapper> alertMappers) {
+        for (AlertMapper mapper : alertMappers) {
+            AlertMapper previous = mappers.put(mapper.toolType(), mapper);
+            if (previous != null) {
+                throw new IllegalStateException("Two mappers registered for " + mapper.toolType() + ": "
+                        + previous.getClass().getSimpleName() + ", " + mapper.getClass().getSimpleName());
+            }
+        }
+    }
+
+    public AlertMapper get(ToolType toolType) {
+        AlertMapper mapper = mappers.get(toolType);
+        if (mapper == null) {
+            throw new IllegalArgumentException("Unsupported tool type: " + toolType);
+        }
+        return mapper;
+    }
+}
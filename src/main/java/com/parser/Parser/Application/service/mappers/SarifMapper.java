@@ -0,0 +1,179 @@
+package com.parser.Parser.Application.service.mappers;
+
+import com.fasterxml.jackson.core.JsonPointer;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.parser.Parser.Application.model.Finding;
+import com.parser.Parser.Application.model.Severity;
+import com.parser.Parser.Application.model.Status;
+import com.parser.Parser.Application.model.ToolType;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Maps SARIF 2.1.0 results. The alerts come from SarifAlertReader as {"result", "rule", "tool"},
+ * with the rule already resolved from the run's rules tables (null if the result names none).
+ */
+@Component
+public class SarifMapper implements AlertMapper {
+
+    private static final JsonPointer RULE_ID = JsonPointer.compile("/result/ruleId");
+    private static final JsonPointer RULE_REF_ID = JsonPointer.compile("/result/rule/id");
+    private static final JsonPointer RESULT_LEVEL = JsonPointer.compile("/result/level");
+    private static final JsonPointer MESSAGE = JsonPointer.compile("/result/message/text");
+    private static final JsonPointer BASELINE_STATE = JsonPointer.compile("/result/baselineState");
+    private static final JsonPointer SUPPRESSIONS = JsonPointer.compile("/result/suppressions");
+    private static final JsonPointer FINGERPRINTS = JsonPointer.compile("/result/fingerprints");
+    private static final JsonPointer PARTIAL_FINGERPRINTS = JsonPointer.compile("/result/partialFingerprints");
+    private static final JsonPointer LOCATION = JsonPointer.compile("/result/locations/0/physicalLocation");
+    private static final JsonPointer RESULT_SECURITY_SEVERITY = JsonPointer.compile("/result/properties/security-severity");
+    private static final JsonPointer RULE_NAME = JsonPointer.compile("/rule/name");
+    private static final JsonPointer RULE_SHORT_DESCRIPTION = JsonPointer.compile("/rule/shortDescription/text");
+    private static final JsonPointer RULE_FULL_DESCRIPTION = JsonPointer.compile("/rule/fullDescription/text");
+    private static final JsonPointer RULE_LEVEL = JsonPointer.compile("/rule/defaultConfiguration/level");
+    private static final JsonPointer RULE_SECURITY_SEVERITY = JsonPointer.compile("/rule/properties/security-severity");
+    private static final JsonPointer RULE_TAGS = JsonPointer.compile("/rule/properties/tags");
+    private static final JsonPointer RULE_HELP_URI = JsonPointer.compile("/rule/helpUri");
+    private static final JsonPointer TOOL = JsonPointer.compile("/tool");
+
+    private static final Map<String, Severity> LEVELS = Map.of(
+            "error", Severity.HIGH,
+            "warning", Severity.MEDIUM,
+            "note", Severity.LOW,
+            "none", Severity.INFO
+    );
+    private static final Map<String, Status> BASELINE_STATES = Map.of(
+            "new", Status.OPEN,
+            "unchanged", Status.OPEN,
+            "updated", Status.OPEN,
+            "absent", Status.FIXED
+    );
+
+    @Override
+    public ToolType toolType() {
+        return ToolType.SARIF;
+    }
+
+    @Override
+    public Finding map(JsonNode node) {
+        Finding f = new Finding();
+        f.setToolName(node.at(TOOL).asText(""));
+        f.setTitle(firstText(node, "Unnamed SARIF Result", RULE_SHORT_DESCRIPTION, RULE_NAME, RULE_ID, RULE_REF_ID));
+        f.setDescription(firstText(node, "", RULE_FULL_DESCRIPTION, MESSAGE));
+
+        f.setStatus(mapStatus(node.at(SUPPRESSIONS), node.at(BASELINE_STATE).asText("")));
+
+        // security-severity (a CVSS-like score) wins over the plain SARIF level
+        double score = securitySeverity(node);
+        String level = node.at(RESULT_LEVEL).asText(node.at(RULE_LEVEL).asText("warning"));
+        f.setSeverity(mapSeverity(score, level));
+        f.setCvss(Math.max(score, 0.0));
+        f.setCve("");
+        f.setUrl(node.at(RULE_HELP_URI).asText(""));
+
+        List<String> cweList = new ArrayList<>();
+        for (JsonNode t : node.at(RULE_TAGS)) {
+            if (t.asText().toLowerCase(Locale.ROOT).contains("cwe")) {
+                cweList.add(t.asText());
+            }
+        }
+        if (!cweList.isEmpty()) {
+            f.setCwe(String.join(",", cweList));
+        }
+
+        JsonNode loc = node.at(LOCATION);
+        if (!loc.isMissingNode()) {
+            String uri = loc.path("artifactLocation").path("uri").asText("");
+            int startLine = loc.path("region").path("startLine").asInt(-1);
+            f.setLocation(uri + " (line " + startLine + ")");
+        }
+        return f;
+    }
+
+    // SARIF results carry no alert number. Prefer the producer's own fingerprint, else the rule and
+    // position of the result, both scoped to the tool that reported it.
+    @Override
+    public String alertNumber(JsonNode alert) {
+        String tool = alert.at(TOOL).asText("");
+        String fingerprint = firstValue(alert.at(FINGERPRINTS));
+        if (fingerprint == null) {
+            fingerprint = firstValue(alert.at(PARTIAL_FINGERPRINTS));
+        }
+        if (fingerprint != null) {
+            return tool + ":" + fingerprint;
+        }
+        JsonNode loc = alert.at(LOCATION);
+        return tool + ":" + ruleId(alert) + "@" + loc.path("artifactLocation").path("uri").asText("")
+                + ":" + loc.path("region").path("startLine").asInt(-1)
+                + ":" + loc.path("region").path("startColumn").asInt(-1);
+    }
+
+    // Any accepted (or unreviewed) suppression hides the result; a rejected one leaves it open.
+    public Status mapStatus(JsonNode suppressions, String baselineState) {
+        for (JsonNode suppression : suppressions) {
+            if (!"rejected".equalsIgnoreCase(suppression.path("status").asText(""))) {
+                return Status.SUPPRESSED;
+            }
+        }
+        return AlertMapper.lookup(BASELINE_STATES, baselineState, Status.OPEN);
+    }
+
+    public Severity mapSeverity(double securitySeverity, String level) {
+        if (securitySeverity >= 9.0) {
+            return Severity.CRITICAL;
+        }
+        if (securitySeverity >= 7.0) {
+            return Severity.HIGH;
+        }
+        if (securitySeverity >= 4.0) {
+            return Severity.MEDIUM;
+        }
+        if (securitySeverity > 0.0) {
+            return Severity.LOW;
+        }
+        return AlertMapper.lookup(LEVELS, level, Severity.MEDIUM);
+    }
+
+    // Usually a string ("8.8"), sometimes a number; -1 when absent or unreadable
+    private static double securitySeverity(JsonNode node) {
+        JsonNode value = node.at(RESULT_SECURITY_SEVERITY);
+        if (value.isMissingNode()) {
+            value = node.at(RULE_SECURITY_SEVERITY);
+        }
+        if (value.isNumber()) {
+            return value.asDouble();
+        }
+        try {
+            return Double.parseDouble(value.asText(""));
+        } catch (NumberFormatException e) {
+            return -1.0;
+        }
+    }
+
+    private static String ruleId(JsonNode node) {
+        JsonNode id = node.at(RULE_ID);
+        if (id.isMissingNode()) {
+            id = node.at(RULE_REF_ID);
+        }
+        return id.isMissingNode() ? null : id.asText();
+    }
+
+    private static String firstText(JsonNode node, String fallback, JsonPointer... pointers) {
+        for (JsonPointer pointer : pointers) {
+            JsonNode value = node.at(pointer);
+            if (value.isTextual() && !value.asText().isEmpty()) {
+                return value.asText();
+            }
+        }
+        return fallback;
+    }
+
+    private static String firstValue(JsonNode fingerprints) {
+        Iterator<JsonNode> values = fingerprints.elements();
+        return values.hasNext() ? values.next().asText() : null;
+    }
+}
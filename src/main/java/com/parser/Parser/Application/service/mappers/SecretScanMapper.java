@@ -1,26 +1,57 @@
 package com.parser.Parser.Application.service.mappers;
 
+import com.fasterxml.jackson.core.JsonPointer;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.parser.Parser.Application.model.Finding;
 import com.parser.Parser.Application.model.Severity;
 import com.parser.Parser.Application.model.Status;
+import com.parser.Parser.Application.model.ToolType;
+import org.springframework.stereotype.Component;
 
-public class SecretScanMapper {
+import java.util.Map;
+
+@Component
+public class SecretScanMapper implements AlertMapper {
+
+    private static final JsonPointer DISPLAY_NAME = JsonPointer.compile("/secret_type_display_name");
+    private static final JsonPointer SECRET_TYPE = JsonPointer.compile("/secret_type");
+    private static final JsonPointer STATE = JsonPointer.compile("/state");
+    private static final JsonPointer HTML_URL = JsonPointer.compile("/html_url");
+
+    private static final Map<String, Status> STATES = Map.of(
+            "open", Status.OPEN,
+            "resolved", Status.FIXED
+    );
+
+    @Override
+    public ToolType toolType() {
+        return ToolType.SECRETSCAN;
+    }
+
+    @Override
+    public Finding map(JsonNode node) {
+        Finding f = new Finding();
+        f.setTitle(node.at(DISPLAY_NAME).asText("Secret Alert"));
+        f.setDescription("Exposed secret of type: " + node.at(SECRET_TYPE).asText(""));
+
+        String rawState = node.at(STATE).asText("open");
+        f.setStatus(mapStatus(rawState));
+        f.setSeverity(mapSeverity(null));
+
+        f.setUrl(node.at(HTML_URL).asText(""));
+        f.setCve("");
+        f.setCwe("");
+        f.setCvss(0.0);
+        f.setLocation("");
+        return f;
+    }
 
     public Status mapStatus(String rawState) {
-        if (rawState == null) {
-            return Status.OPEN;
-        }
-        switch (rawState.toLowerCase()) {
-            case "open":
-                return Status.OPEN;
-            case "resolved":
-                return Status.FIXED;
-            default:
-                return Status.OPEN;
-        }
+        return AlertMapper.lookup(STATES, rawState, Status.OPEN);
     }
 
     public Severity mapSeverity(String rawSeverity) {
         return Severity.CRITICAL;
 
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,80 @@
+package com.parser.Parser.Application.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.GZIPOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ContentDigestInputStreamTest {
+
+    private static final byte[] EXPORT = "[{\"number\":1},{\"number\":2}]\n\n".getBytes(StandardCharsets.UTF_8);
+
+    @Test
+    void digestCoversTheWholeInputWhenTheReaderStopsEarly() throws Exception {
+        ContentDigestInputStream in = new ContentDigestInputStream(new ByteArrayInputStream(EXPORT));
+        in.readNBytes(5);
+        in.read();
+
+        assertThat(in.finish()).isEqualTo(sha256(EXPORT));
+    }
+
+    @Test
+    void skippedBytesAreDigested() throws Exception {
+        ContentDigestInputStream in = new ContentDigestInputStream(new ByteArrayInputStream(EXPORT));
+
+        assertThat(in.skip(10)).isEqualTo(10);
+        assertThat(in.skip(Long.MAX_VALUE)).isEqualTo(EXPORT.length - 10);
+        assertThat(in.markSupported()).isFalse();
+        assertThat(in.finish()).isEqualTo(sha256(EXPORT));
+    }
+
+    @Test
+    void compressedInputIsDigestedAsStoredNotAsParsed() throws Exception {
+        ByteArrayOutputStream gzip = new ByteArrayOutputStream();
+        try (OutputStream out = new GZIPOutputStream(gzip)) {
+            out.write(EXPORT);
+        }
+        byte[] stored = gzip.toByteArray();
+        ContentDigestInputStream raw = new ContentDigestInputStream(new ByteArrayInputStream(stored));
+
+        // The parser closes its stream at the end of the JSON, before the gzip trailer is read
+        try (InputStream in = ScanInputStreams.open(raw)) {
+            assertThat(in.readNBytes(EXPORT.length - 2)).isEqualTo(Arrays.copyOf(EXPORT, EXPORT.length - 2));
+        }
+
+        assertThat(raw.finish()).isEqualTo(sha256(stored));
+        assertThat(raw.readNanos()).isPositive();
+    }
+
+    @Test
+    void closeLeavesTheWrappedStreamOpen() throws Exception {
+        AtomicBoolean closed = new AtomicBoolean();
+        InputStream source = new ByteArrayInputStream(EXPORT) {
+            @Override
+            public void close() {
+                closed.set(true);
+            }
+        };
+        ContentDigestInputStream in = new ContentDigestInputStream(source);
+
+        in.close();
+
+        assertThat(closed).isFalse();
+        assertThat(in.finish()).isEqualTo(sha256(EXPORT));
+    }
+
+    private static String sha256(byte[] bytes) throws NoSuchAlgorithmException {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+    }
+}
@@ -0,0 +1,95 @@
+package com.parser.Parser.Application.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Index caches are evicted, and their stats retired, on Caffeine's maintenance thread, so the
+ * totals are checked both while eviction is racing with stats() and once it has settled.
+ */
+class FindingDedupCacheTest {
+
+    private static final int INDICES = 50;
+
+    @Test
+    void statsStayMonotonicWhileIndexCachesAreEvicted() throws Exception {
+        FindingDedupCache cache = new FindingDedupCache(1, 100);
+        AtomicBoolean done = new AtomicBoolean();
+        CompletableFuture<Void> reader = CompletableFuture.runAsync(() -> {
+            CacheStats previous = CacheStats.empty();
+            while (!done.get()) {
+                previous = assertNotBelow(cache.stats(), previous);
+            }
+        });
+
+        CacheStats previous = CacheStats.empty();
+        long hits = 0;
+        for (int i = 0; i < INDICES; i++) {
+            String index = "findings-" + i;
+            cache.put(index, "fingerprint", "id", "digest");
+            // Admission may turn a new index cache away at once, so a hit is not guaranteed
+            if (cache.get(index, "fingerprint") != null) {
+                hits++;
+            }
+            previous = assertNotBelow(cache.stats(), previous);
+        }
+        done.set(true);
+        reader.get(10, TimeUnit.SECONDS);
+
+        settle(cache);
+        assertThat(cache.size()).isLessThanOrEqualTo(1);
+        // The stats of every evicted index cache are still in the total
+        assertThat(hits).isPositive();
+        assertThat(cache.stats().hitCount()).isEqualTo(hits);
+        assertThat(cache.stats().missCount()).isEqualTo(INDICES - hits);
+    }
+
+    @Test
+    void invalidatedIndexKeepsItsCounts() {
+        FindingDedupCache cache = new FindingDedupCache(16, 100);
+        cache.put("findings-1", "fingerprint", "id", "digest");
+        cache.get("findings-1", "fingerprint");
+        cache.get("findings-1", "unknown");
+
+        cache.invalidateIndex("findings-1");
+        settle(cache);
+
+        assertThat(cache.size()).isZero();
+        assertThat(cache.stats().hitCount()).isEqualTo(1);
+        assertThat(cache.stats().missCount()).isEqualTo(1);
+    }
+
+    private static CacheStats assertNotBelow(CacheStats current, CacheStats previous) {
+        assertThat(current.hitCount()).isGreaterThanOrEqualTo(previous.hitCount());
+        assertThat(current.missCount()).isGreaterThanOrEqualTo(previous.missCount());
+        assertThat(current.evictionCount()).isGreaterThanOrEqualTo(previous.evictionCount());
+        return current;
+    }
+
+    // Runs pending evictions and waits for their removal listeners, which retire the index caches.
+    @SuppressWarnings("unchecked")
+    private static void settle(FindingDedupCache cache) {
+        Cache<String, ?> indices = (Cache<String, ?>) ReflectionTestUtils.getField(cache, "indices");
+        indices.cleanUp();
+        Set<?> live = (Set<?>) ReflectionTestUtils.getField(cache, "live");
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (System.nanoTime() < deadline) {
+            synchronized (live) {
+                if (live.size() == indices.estimatedSize()) {
+                    return;
+                }
+            }
+            Thread.onSpinWait();
+        }
+        throw new AssertionError("index caches were not retired");
+    }
+}
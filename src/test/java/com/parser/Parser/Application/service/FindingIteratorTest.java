@@ -0,0 +1,163 @@
+package com.parser.Parser.Application.service;
+
+import com.github.luben.zstd.ZstdOutputStream;
+import com.parser.Parser.Application.model.Finding;
+import com.parser.Parser.Application.model.ToolType;
+import com.parser.Parser.Application.service.mappers.CodeScanMapper;
+import com.parser.Parser.Application.service.mappers.DependabotMapper;
+import com.parser.Parser.Application.service.mappers.MapperRegistry;
+import com.parser.Parser.Application.service.mappers.SarifMapper;
+import com.parser.Parser.Application.service.mappers.SecretScanMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FindingIteratorTest {
+
+    private final ParserService parserService = new ParserService(new MapperRegistry(List.of(
+            new CodeScanMapper(), new DependabotMapper(), new SecretScanMapper(), new SarifMapper())));
+
+    @Test
+    void rawAlertIsTheExactSourceTextWithMultiByteCharacters() throws IOException {
+        List<String> alerts = List.of(
+                alert(1, "Déjà vu — naïve café"),
+                alert(2, "日本語のルール"),
+                alert(3, "emoji 🔒 and 🐛"));
+        String export = "[\n  " + String.join(",\n  ", alerts) + "\n]\n";
+
+        List<Finding> findings = readAll(new ByteArrayInputStream(export.getBytes(StandardCharsets.UTF_8)), 100);
+
+        assertThat(findings).extracting(Finding::getRawAdditionalData).containsExactlyElementsOf(alerts);
+        assertThat(findings).extracting(Finding::getTitle)
+                .containsExactly("Déjà vu — naïve café", "日本語のルール", "emoji 🔒 and 🐛");
+    }
+
+    @Test
+    void alertsLargerThanTheRecordingBufferAreSlicedWhole() throws IOException {
+        // Each alert spans several of the parser's and the recorder's buffers, so multi-byte
+        // characters end up split across reads
+        List<String> alerts = new ArrayList<>();
+        for (int i = 1; i <= 3; i++) {
+            alerts.add(alert(i, "ü€".repeat(40_000) + i));
+        }
+        String export = "[" + String.join(",", alerts) + "]";
+
+        List<Finding> findings = readAll(new ByteArrayInputStream(export.getBytes(StandardCharsets.UTF_8)), 2);
+
+        assertThat(findings).extracting(Finding::getRawAdditionalData).containsExactlyElementsOf(alerts);
+    }
+
+    @Test
+    void readsGzipAndZstdExportsThroughScanInputStreams() throws IOException {
+        List<String> alerts = List.of(alert(1, "gzip ß"), alert(2, "zstd ø"));
+        byte[] export = ("[" + String.join(",", alerts) + "]").getBytes(StandardCharsets.UTF_8);
+
+        ByteArrayOutputStream gzip = new ByteArrayOutputStream();
+        try (OutputStream out = new GZIPOutputStream(gzip)) {
+            out.write(export);
+        }
+        ByteArrayOutputStream zstd = new ByteArrayOutputStream();
+        try (OutputStream out = new ZstdOutputStream(zstd)) {
+            out.write(export);
+        }
+
+        for (byte[] compressed : List.of(gzip.toByteArray(), zstd.toByteArray())) {
+            try (InputStream in = ScanInputStreams.open(new ByteArrayInputStream(compressed))) {
+                assertThat(readAll(in, 100)).extracting(Finding::getRawAdditionalData).containsExactlyElementsOf(alerts);
+            }
+        }
+    }
+
+    @Test
+    void nonArrayRootIsASingleAlert() throws IOException {
+        String alert = alert(7, "single");
+
+        List<Finding> findings = readAll(new ByteArrayInputStream(("  " + alert + "  ").getBytes(StandardCharsets.UTF_8)), 100);
+
+        assertThat(findings).hasSize(1);
+        assertThat(findings.get(0).getRawAdditionalData()).isEqualTo(alert);
+        assertThat(findings.get(0).getTitle()).isEqualTo("single");
+    }
+
+    @Test
+    void emptyInputAndEmptyArrayYieldNothing() throws IOException {
+        assertThat(readAll(new ByteArrayInputStream(new byte[0]), 100)).isEmpty();
+        assertThat(readAll(new ByteArrayInputStream("[ ]".getBytes(StandardCharsets.UTF_8)), 100)).isEmpty();
+    }
+
+    @Test
+    void batchesSplitTheExportInOrderUpToTheLimit() throws IOException {
+        List<String> alerts = new ArrayList<>();
+        for (int i = 1; i <= 10; i++) {
+            alerts.add(alert(i, "rule " + i));
+        }
+        byte[] export = ("[" + String.join(",", alerts) + "]").getBytes(StandardCharsets.UTF_8);
+
+        List<Integer> sizes = new ArrayList<>();
+        List<String> raws = new ArrayList<>();
+        try (FindingIterator it = parserService.stream(ToolType.CODESCAN, new ByteArrayInputStream(export))) {
+            List<Finding> batch;
+            while (!(batch = it.nextBatch(3)).isEmpty()) {
+                sizes.add(batch.size());
+                batch.forEach(f -> raws.add(f.getRawAdditionalData()));
+            }
+            assertThat(it.hasNext()).isFalse();
+            assertThat(it.nextBatch(3)).isEmpty();
+        }
+
+        assertThat(sizes).containsExactly(3, 3, 3, 1);
+        assertThat(raws).containsExactlyElementsOf(alerts);
+    }
+
+    @Test
+    void exactMultipleOfTheBatchSizeEndsWithAnEmptyBatch() throws IOException {
+        byte[] export = ("[" + alert(1, "a") + "," + alert(2, "b") + "]").getBytes(StandardCharsets.UTF_8);
+
+        try (FindingIterator it = parserService.stream(ToolType.CODESCAN, new ByteArrayInputStream(export))) {
+            assertThat(it.nextBatch(2)).hasSize(2);
+            assertThat(it.nextBatch(2)).isEmpty();
+        }
+    }
+
+    @Test
+    void recorderDropsDiscardedBytesAndShrinksBack() throws IOException {
+        byte[] bytes = new byte[1024 * 1024];
+        RecordingInputStream recorder = new RecordingInputStream(new ByteArrayInputStream(bytes));
+        recorder.readNBytes(bytes.length);
+        assertThat(recorder.capacity()).isGreaterThanOrEqualTo(bytes.length);
+
+        recorder.discardTo(bytes.length - 10);
+        assertThat(recorder.capacity()).isEqualTo(64 * 1024);
+
+        // Offsets that were already discarded are ignored
+        recorder.discardTo(5);
+        assertThat(recorder.sliceAndDiscard(bytes.length - 10, bytes.length)).hasSize(10);
+    }
+
+    private List<Finding> readAll(InputStream in, int batchSize) throws IOException {
+        List<Finding> findings = new ArrayList<>();
+        try (FindingIterator it = parserService.stream(ToolType.CODESCAN, in)) {
+            List<Finding> batch;
+            while (!(batch = it.nextBatch(batchSize)).isEmpty()) {
+                findings.addAll(batch);
+            }
+        }
+        return findings;
+    }
+
+    private static String alert(int number, String ruleName) {
+        return "{\"number\":" + number + ",\"state\":\"open\",\"rule\":{\"id\":\"rule-" + number
+                + "\",\"name\":\"" + ruleName + "\",\"security_severity_level\":\"high\"},"
+                + "\"most_recent_instance\":{\"location\":{\"path\":\"src/Main.java\",\"start_line\":" + number + "}}}";
+    }
+}
@@ -0,0 +1,123 @@
+package com.parser.Parser.Application.service;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._helpers.bulk.BulkIngester;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.parser.Parser.Application.model.Finding;
+import com.parser.Parser.Application.model.ToolType;
+import com.parser.Parser.Application.service.mappers.CodeScanMapper;
+import com.parser.Parser.Application.service.mappers.DependabotMapper;
+import com.parser.Parser.Application.service.mappers.MapperRegistry;
+import com.parser.Parser.Application.service.mappers.SarifMapper;
+import com.parser.Parser.Application.service.mappers.SecretScanMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class FingerprintMigrationTest {
+
+    private static final String INDEX = "findings-1";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ParserService parserService = new ParserService(new MapperRegistry(List.of(
+            new CodeScanMapper(), new DependabotMapper(), new SecretScanMapper(), new SarifMapper())));
+
+    private BulkIngester<CompletableFuture<String>> bulkIngester;
+    private FindingIndexReader reader;
+    private ElasticsearchService service;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() throws IOException {
+        bulkIngester = mock(BulkIngester.class);
+        doAnswer(invocation -> {
+            invocation.<CompletableFuture<String>>getArgument(1).complete("ok");
+            return null;
+        }).when(bulkIngester).add(any(Function.class), any());
+        reader = mock(FindingIndexReader.class);
+        IndexTemplateManager indexTemplateManager = mock(IndexTemplateManager.class);
+        when(indexTemplateManager.exists(INDEX)).thenReturn(true);
+        service = new ElasticsearchService(mock(ElasticsearchClient.class), bulkIngester, new FindingDedupCache(16, 1000),
+                mock(IngestionMetrics.class), indexTemplateManager, reader);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void sarifFindingsOfTheSameRuleKeepTheirIds() throws IOException {
+        // Two results of one rule: distinct findings whose documents carry no alert number
+        String log = "{\"runs\":[{\"tool\":{\"driver\":{\"name\":\"CodeQL\",\"rules\":[{\"id\":\"r\",\"name\":\"Rule\"}]}},"
+                + "\"results\":[{\"ruleId\":\"r\",\"locations\":[{\"physicalLocation\":{\"artifactLocation\":{\"uri\":\"a.java\"},\"region\":{\"startLine\":1}}}]},"
+                + "{\"ruleId\":\"r\",\"locations\":[{\"physicalLocation\":{\"artifactLocation\":{\"uri\":\"b.java\"},\"region\":{\"startLine\":2}}}]}]}]}";
+        List<Finding> stored = new ArrayList<>();
+        for (Finding parsed : parserService.parse(ToolType.SARIF, log)) {
+            stored.add(asStored(parsed));
+        }
+        assertThat(stored).extracting(Finding::getId).doesNotHaveDuplicates();
+        when(reader.stream(eq(INDEX), isNull())).thenReturn(stored.stream());
+
+        assertThat(service.migrateToFingerprintIds(INDEX)).isZero();
+        verify(bulkIngester, never()).add(any(Function.class), any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void legacyDocumentsAreRekeyedToTheirFingerprint() throws IOException {
+        Finding legacy = new Finding();
+        legacy.setId(UUID.randomUUID().toString());
+        legacy.setToolType(ToolType.CODESCAN);
+        legacy.setTitle("Rule");
+        legacy.setAdditionalData(Map.of("number", 42));
+        Finding current = new Finding();
+        current.setToolType(ToolType.CODESCAN);
+        current.setTitle("Other");
+        current.setId(FindingFingerprint.of(ToolType.CODESCAN, "7", "Other"));
+        when(reader.stream(eq(INDEX), isNull())).thenReturn(Stream.of(legacy, current));
+
+        assertThat(service.migrateToFingerprintIds(INDEX)).isEqualTo(1);
+        assertThat(legacy.getId()).isEqualTo(FindingFingerprint.of(ToolType.CODESCAN, "42", "Rule"));
+        // One index under the new id and one delete of the old copy
+        verify(bulkIngester, times(2)).add(any(Function.class), any());
+    }
+
+    @Test
+    void migratedIdOnlyMovesLegacyIds() {
+        Finding finding = new Finding();
+        finding.setToolType(ToolType.DEPENDABOT);
+        finding.setTitle("t");
+        finding.setId(UUID.randomUUID().toString());
+        assertThat(ElasticsearchService.migratedId(finding)).isEqualTo(FindingFingerprint.of(ToolType.DEPENDABOT, "", "t"));
+
+        finding.setId(FindingFingerprint.of(ToolType.DEPENDABOT, "9", "t"));
+        assertThat(ElasticsearchService.migratedId(finding)).isNull();
+
+        finding.setToolType(null);
+        finding.setId(UUID.randomUUID().toString());
+        assertThat(ElasticsearchService.migratedId(finding)).isNull();
+    }
+
+    // The finding as FindingIndexReader returns it: the document source read back, with the id set.
+    private Finding asStored(Finding parsed) throws IOException {
+        Finding stored = objectMapper.readValue(objectMapper.writeValueAsString(parsed), Finding.class);
+        stored.setId(parsed.getId());
+        return stored;
+    }
+}
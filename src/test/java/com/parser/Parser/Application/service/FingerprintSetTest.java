@@ -0,0 +1,70 @@
+package com.parser.Parser.Application.service;
+
+import com.parser.Parser.Application.model.ToolType;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FingerprintSetTest {
+
+    @Test
+    void containsExactlyTheAddedFingerprints() {
+        FingerprintSet set = new FingerprintSet();
+        for (int i = 0; i < 5000; i++) {
+            set.add(fingerprint(i));
+        }
+
+        assertThat(set.size()).isEqualTo(5000);
+        for (int i = 0; i < 5000; i++) {
+            assertThat(set.contains(fingerprint(i))).isTrue();
+        }
+        for (int i = 5000; i < 6000; i++) {
+            assertThat(set.contains(fingerprint(i))).isFalse();
+        }
+    }
+
+    @Test
+    void emptySetContainsNothing() {
+        FingerprintSet set = new FingerprintSet();
+
+        assertThat(set.size()).isZero();
+        assertThat(set.contains(fingerprint(1))).isFalse();
+    }
+
+    @Test
+    void legacyIdsAreMatchedByTheirStringForm() {
+        String uuid = UUID.randomUUID().toString();
+        FingerprintSet set = new FingerprintSet();
+        set.add(uuid);
+
+        assertThat(set.contains(uuid)).isTrue();
+        assertThat(set.contains(UUID.randomUUID().toString())).isFalse();
+    }
+
+    @Test
+    void addsAfterAQueryAreStillFound() {
+        FingerprintSet set = new FingerprintSet();
+        set.add(fingerprint(2));
+        assertThat(set.contains(fingerprint(1))).isFalse();
+
+        set.add(fingerprint(1));
+
+        assertThat(set.contains(fingerprint(1))).isTrue();
+        assertThat(set.contains(fingerprint(2))).isTrue();
+    }
+
+    @Test
+    void duplicatesAreHarmless() {
+        FingerprintSet set = new FingerprintSet();
+        set.add(fingerprint(1));
+        set.add(fingerprint(1));
+
+        assertThat(set.contains(fingerprint(1))).isTrue();
+    }
+
+    private static String fingerprint(int alertNumber) {
+        return FindingFingerprint.of(ToolType.CODESCAN, String.valueOf(alertNumber), "title");
+    }
+}
@@ -0,0 +1,150 @@
+package com.parser.Parser.Application.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.MessageListenerContainer;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * With max-in-flight 1 jobs start one at a time in dispatch order, so a gate job that holds the
+ * only slot lets a test queue up a backlog and then observe the exact serving order.
+ */
+class ParseJobExecutorTest {
+
+    private static final int GATE_TENANT = 0;
+
+    private final List<Integer> started = Collections.synchronizedList(new ArrayList<>());
+    private final CountDownLatch gate = new CountDownLatch(1);
+    private ParseJobExecutor executor;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        gate.countDown();
+        executor.shutdown();
+    }
+
+    @Test
+    void tenantsAreServedRoundRobin() {
+        executor = new ParseJobExecutor(1, 1, "", 1000, 0, "listener", registry(null));
+        closeGate();
+
+        List<CompletableFuture<Integer>> jobs = new ArrayList<>();
+        jobs.addAll(submit(1, 4));
+        jobs.addAll(submit(2, 2));
+        jobs.addAll(submit(3, 1));
+        openGateAndWait(jobs);
+
+        assertThat(started).containsExactly(GATE_TENANT, 1, 2, 3, 1, 2, 1, 1);
+    }
+
+    @Test
+    void heavyBacklogDoesNotStarveALateTenant() {
+        executor = new ParseJobExecutor(1, 1, "", 1000, 0, "listener", registry(null));
+        closeGate();
+
+        List<CompletableFuture<Integer>> jobs = new ArrayList<>(submit(1, 100));
+        jobs.addAll(submit(2, 1));
+        openGateAndWait(jobs);
+
+        // The late tenant waits for one job of the heavy tenant, not for its whole backlog
+        assertThat(started.indexOf(2)).isEqualTo(2);
+    }
+
+    @Test
+    void weightIsTheNumberOfJobsPerTurn() {
+        executor = new ParseJobExecutor(1, 1, "1=3", 1000, 0, "listener", registry(null));
+        closeGate();
+
+        List<CompletableFuture<Integer>> jobs = new ArrayList<>(submit(1, 6));
+        jobs.addAll(submit(2, 3));
+        openGateAndWait(jobs);
+
+        assertThat(started).containsExactly(GATE_TENANT, 1, 1, 1, 2, 1, 1, 1, 2, 2);
+    }
+
+    @Test
+    void perTenantLimitLeavesSlotsForOtherTenants() throws Exception {
+        executor = new ParseJobExecutor(4, 2, "", 1000, 0, "listener", registry(null));
+        CountDownLatch heavy = new CountDownLatch(1);
+        for (int i = 0; i < 10; i++) {
+            executor.submit(1, () -> {
+                heavy.await();
+                return 1;
+            });
+        }
+
+        assertThat(executor.submit(2, () -> 2).get(5, TimeUnit.SECONDS)).isEqualTo(2);
+        // Only two of the heavy tenant's jobs were started
+        assertThat(executor.queued()).isEqualTo(8);
+        heavy.countDown();
+    }
+
+    @Test
+    void listenerPausesAtTheHighMarkAndResumesOnceTheQueueDrains() {
+        MessageListenerContainer container = mock(MessageListenerContainer.class);
+        executor = new ParseJobExecutor(1, 1, "", 3, 1, "listener", registry(container));
+        closeGate();
+
+        List<CompletableFuture<Integer>> jobs = new ArrayList<>(submit(1, 2));
+        verify(container, never()).pause();
+        jobs.addAll(submit(2, 1));
+        verify(container).pause();
+
+        openGateAndWait(jobs);
+
+        verify(container, timeout(5000)).resume();
+        verify(container, times(1)).pause();
+        assertThat(executor.queued()).isZero();
+    }
+
+    private void closeGate() {
+        executor.submit(GATE_TENANT, () -> {
+            started.add(GATE_TENANT);
+            gate.await();
+            return GATE_TENANT;
+        });
+    }
+
+    private void openGateAndWait(List<CompletableFuture<Integer>> jobs) {
+        gate.countDown();
+        CompletableFuture.allOf(jobs.toArray(new CompletableFuture[0])).orTimeout(10, TimeUnit.SECONDS).join();
+    }
+
+    private List<CompletableFuture<Integer>> submit(int tenantId, int count) {
+        List<CompletableFuture<Integer>> jobs = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            jobs.add(executor.submit(tenantId, () -> {
+                started.add(tenantId);
+                return tenantId;
+            }));
+        }
+        return jobs;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ObjectProvider<KafkaListenerEndpointRegistry> registry(MessageListenerContainer container) {
+        ObjectProvider<KafkaListenerEndpointRegistry> provider = mock(ObjectProvider.class);
+        if (container != null) {
+            KafkaListenerEndpointRegistry registry = mock(KafkaListenerEndpointRegistry.class);
+            when(registry.getListenerContainer("listener")).thenReturn(container);
+            when(provider.getIfAvailable()).thenReturn(registry);
+        }
+        return provider;
+    }
+}
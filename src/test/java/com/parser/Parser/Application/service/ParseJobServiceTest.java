@@ -0,0 +1,105 @@
+package com.parser.Parser.Application.service;
+
+import com.parser.Parser.Application.model.Finding;
+import com.parser.Parser.Application.model.ToolType;
+import com.parser.Parser.Application.service.mappers.CodeScanMapper;
+import com.parser.Parser.Application.service.mappers.DependabotMapper;
+import com.parser.Parser.Application.service.mappers.MapperRegistry;
+import com.parser.Parser.Application.service.mappers.SarifMapper;
+import com.parser.Parser.Application.service.mappers.SecretScanMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ParseJobServiceTest {
+
+    private static final String INDEX = "findings-1";
+
+    @TempDir
+    Path dir;
+
+    private ElasticsearchService elasticsearchService;
+    private ParseJobService service;
+    private Path file;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() throws IOException {
+        elasticsearchService = mock(ElasticsearchService.class);
+        when(elasticsearchService.upsertFindings(anyList(), eq(INDEX)))
+                .thenAnswer(invocation -> invocation.<List<Finding>>getArgument(0).stream().map(Finding::getId).toList());
+        when(elasticsearchService.closeVanishedFindings(eq(INDEX), eq(ToolType.CODESCAN), isNull(), any())).thenReturn(1);
+        RunbookDispatcher runbookDispatcher = mock(RunbookDispatcher.class);
+        when(runbookDispatcher.open(any())).thenReturn(mock(RunbookDispatcher.Publication.class));
+        KafkaTemplate<String, Object> ackTemplate = mock(KafkaTemplate.class);
+        when(ackTemplate.send(anyString(), any())).thenReturn(CompletableFuture.completedFuture(null));
+        IngestionMetrics metrics = mock(IngestionMetrics.class);
+        when(metrics.timeSend(anyString(), any())).thenAnswer(invocation -> invocation.getArgument(1));
+        ParserService parserService = new ParserService(new MapperRegistry(List.of(
+                new CodeScanMapper(), new DependabotMapper(), new SecretScanMapper(), new SarifMapper())));
+        service = new ParseJobService(mock(TenantCache.class), parserService, elasticsearchService,
+                mock(AsyncElasticsearchService.class), ackTemplate, runbookDispatcher,
+                new ProcessedFileStore(100, Duration.ofDays(1)), metrics);
+        ReflectionTestUtils.setField(service, "batchSize", 100);
+        ReflectionTestUtils.setField(service, "ackTopic", "ack");
+        file = dir.resolve("codescan.json");
+        Files.writeString(file, "[{\"number\":1,\"rule\":{\"name\":\"a\"}},{\"number\":2,\"rule\":{\"name\":\"b\"}}]");
+    }
+
+    @Test
+    void unchangedFileIsSkippedOnceIngested() throws IOException {
+        ParseJob job = job(false);
+
+        service.process(job);
+        assertThat(service.alreadyIngested(job)).isTrue();
+        service.process(job);
+
+        verify(elasticsearchService, times(1)).upsertFindings(anyList(), anyString());
+    }
+
+    @Test
+    void reconcileReScanOfAnUnchangedFileIsNotSkipped() throws IOException {
+        service.process(job(false));
+        ParseJob reconcile = job(true);
+
+        assertThat(service.alreadyIngested(reconcile)).isFalse();
+        service.process(reconcile);
+
+        verify(elasticsearchService, times(2)).upsertFindings(anyList(), anyString());
+        verify(elasticsearchService).closeVanishedFindings(eq(INDEX), eq(ToolType.CODESCAN), isNull(), any());
+    }
+
+    @Test
+    void changedFileIsIngestedAgain() throws IOException {
+        ParseJob job = job(false);
+        service.process(job);
+
+        Files.writeString(file, "[{\"number\":3,\"rule\":{\"name\":\"c\"}}]");
+
+        assertThat(service.alreadyIngested(job)).isFalse();
+    }
+
+    private ParseJob job(boolean reconcile) {
+        return new ParseJob("event-" + reconcile, 1, INDEX, ToolType.CODESCAN, file, reconcile);
+    }
+}
@@ -0,0 +1,169 @@
+package com.parser.Parser.Application.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.parser.Parser.Application.event.RunbookRequestEvent;
+import com.parser.Parser.Application.model.RunbookPayload;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Inside a transaction chunks are sent synchronously through the transactional template, which makes
+ * the chunking checks deterministic; abort() is checked on the scheduled path it exists for.
+ */
+class RunbookDispatcherTest {
+
+    private static final String TOPIC = "runbooks";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private KafkaTemplate<String, String> sendingJob;
+    private KafkaTemplate<String, Object> transactionalTemplate;
+    private RunbookDispatcher dispatcher;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        sendingJob = mock(KafkaTemplate.class);
+        transactionalTemplate = mock(KafkaTemplate.class);
+        dispatcher = new RunbookDispatcher(sendingJob, transactionalTemplate, objectMapper, mock(IngestionMetrics.class));
+        ReflectionTestUtils.setField(dispatcher, "unifiedTopic", TOPIC);
+        ReflectionTestUtils.setField(dispatcher, "dispatchJitterMs", 0L);
+        ReflectionTestUtils.setField(dispatcher, "chunkSize", 3);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        dispatcher.shutdown();
+    }
+
+    @Test
+    void fullChunksGoOutAsSoonAsTheyFillAndFinishSendsTheRest() {
+        inTransaction();
+        RunbookDispatcher.Publication publication = dispatcher.open(1);
+
+        publication.add(List.of("a", "b"));
+        assertThat(transactionalChunks()).isEmpty();
+        publication.add(List.of("c", "d", "e", "f", "g"));
+        assertThat(transactionalChunks()).extracting(RunbookPayload::getFindingIds)
+                .containsExactly(List.of("a", "b", "c"), List.of("d", "e", "f"));
+        publication.finish();
+
+        List<RunbookPayload> chunks = transactionalChunks();
+        assertThat(chunks).extracting(RunbookPayload::getFindingIds)
+                .containsExactly(List.of("a", "b", "c"), List.of("d", "e", "f"), List.of("g"));
+        assertThat(chunks).extracting(RunbookPayload::getChunkSequence).containsExactly(0, 1, 2);
+        assertThat(chunks).extracting(RunbookPayload::isLastChunk).containsExactly(false, false, true);
+        assertThat(chunks).extracting(RunbookPayload::getTotalChunks).containsExactly(null, null, 3);
+        assertThat(chunks).extracting(RunbookPayload::getCorrelationId).containsOnly(chunks.get(0).getCorrelationId());
+        assertThat(chunks).extracting(RunbookPayload::isFailed).containsOnly(false);
+    }
+
+    @Test
+    void finishAfterAnExactMultipleSendsAnEmptyLastChunk() {
+        inTransaction();
+        RunbookDispatcher.Publication publication = dispatcher.open(1);
+
+        publication.add(List.of("a", "b", "c", "d", "e", "f"));
+        publication.finish();
+
+        List<RunbookPayload> chunks = transactionalChunks();
+        assertThat(chunks).extracting(RunbookPayload::getFindingIds)
+                .containsExactly(List.of("a", "b", "c"), List.of("d", "e", "f"), List.of());
+        assertThat(chunks.get(2).isLastChunk()).isTrue();
+        assertThat(chunks.get(2).getTotalChunks()).isEqualTo(3);
+    }
+
+    @Test
+    void fileWithoutFindingsIsOneEmptyLastChunk() {
+        inTransaction();
+        RunbookDispatcher.Publication publication = dispatcher.open(1);
+
+        publication.finish();
+        publication.add(List.of("late"));
+        publication.finish();
+        publication.abort();
+
+        List<RunbookPayload> chunks = transactionalChunks();
+        assertThat(chunks).hasSize(1);
+        assertThat(chunks.get(0).getFindingIds()).isEmpty();
+        assertThat(chunks.get(0).getChunkSequence()).isZero();
+        assertThat(chunks.get(0).getTotalChunks()).isEqualTo(1);
+    }
+
+    @Test
+    void abortAfterAPartialPublicationEndsItWithAFailedChunk() throws Exception {
+        ReflectionTestUtils.setField(dispatcher, "dispatchDelayMs", 0L);
+        RunbookDispatcher.Publication publication = dispatcher.open(1);
+
+        publication.add(List.of("a", "b", "c", "d"));
+        verify(sendingJob, timeout(5000)).send(eq(TOPIC), anyString(), anyString());
+        publication.abort();
+        publication.add(List.of("e", "f", "g"));
+        publication.finish();
+
+        List<JsonNode> chunks = sentChunks(2);
+        assertThat(chunks.get(0).path("findingIds")).hasSize(3);
+        assertThat(chunks.get(0).path("failed").asBoolean()).isFalse();
+        JsonNode last = chunks.get(1);
+        assertThat(last.path("findingIds")).isEmpty();
+        assertThat(last.path("failed").asBoolean()).isTrue();
+        assertThat(last.path("lastChunk").asBoolean()).isTrue();
+        assertThat(last.path("chunkSequence").asInt()).isEqualTo(1);
+        assertThat(last.path("totalChunks").asInt()).isEqualTo(2);
+    }
+
+    @Test
+    void abortDropsChunksStillWaitingOutTheirDelay() throws Exception {
+        ReflectionTestUtils.setField(dispatcher, "dispatchDelayMs", 60_000L);
+        RunbookDispatcher.Publication publication = dispatcher.open(1);
+
+        publication.add(List.of("a", "b", "c", "d", "e", "f", "g"));
+        publication.abort();
+
+        List<JsonNode> chunks = sentChunks(1);
+        assertThat(chunks.get(0).path("failed").asBoolean()).isTrue();
+        assertThat(chunks.get(0).path("chunkSequence").asInt()).isZero();
+        assertThat(chunks.get(0).path("totalChunks").asInt()).isEqualTo(1);
+    }
+
+    private void inTransaction() {
+        when(transactionalTemplate.inTransaction()).thenReturn(true);
+    }
+
+    private List<RunbookPayload> transactionalChunks() {
+        ArgumentCaptor<Object> events = ArgumentCaptor.forClass(Object.class);
+        verify(transactionalTemplate, atLeast(0)).send(eq(TOPIC), anyString(), events.capture());
+        return events.getAllValues().stream().map(e -> ((RunbookRequestEvent) e).getPayload()).toList();
+    }
+
+    // Waits for exactly count chunks on the scheduled path and returns their payloads in send order.
+    private List<JsonNode> sentChunks(int count) throws Exception {
+        ArgumentCaptor<String> json = ArgumentCaptor.forClass(String.class);
+        verify(sendingJob, timeout(5000).times(count)).send(eq(TOPIC), anyString(), json.capture());
+        Thread.sleep(100);
+        verify(sendingJob, times(count)).send(eq(TOPIC), anyString(), any());
+        List<JsonNode> payloads = new ArrayList<>();
+        for (String value : json.getAllValues()) {
+            payloads.add(objectMapper.readTree(value).path("payload"));
+        }
+        return payloads;
+    }
+}
@@ -0,0 +1,186 @@
+package com.parser.Parser.Application.service;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.parser.Parser.Application.model.Finding;
+import com.parser.Parser.Application.model.ToolType;
+import com.parser.Parser.Application.service.mappers.CodeScanMapper;
+import com.parser.Parser.Application.service.mappers.DependabotMapper;
+import com.parser.Parser.Application.service.mappers.MapperRegistry;
+import com.parser.Parser.Application.service.mappers.SarifMapper;
+import com.parser.Parser.Application.service.mappers.SecretScanMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SarifAlertReaderTest {
+
+    private static final String RULES = "\"rules\":[{\"id\":\"a\",\"name\":\"Rule A\"},{\"id\":\"b\",\"name\":\"Rule B\"}]";
+
+    @Test
+    void ruleIndexWinsOverRuleId() throws IOException {
+        List<JsonNode> alerts = read(log(tool("CodeQL", RULES), "{\"ruleId\":\"a\",\"ruleIndex\":1}"));
+
+        assertThat(alerts).hasSize(1);
+        assertThat(alerts.get(0).path("rule").path("id").asText()).isEqualTo("b");
+        assertThat(alerts.get(0).path("tool").asText()).isEqualTo("CodeQL");
+    }
+
+    @Test
+    void ruleReferenceIndexIsUsedWithoutRuleIndex() throws IOException {
+        List<JsonNode> alerts = read(log(tool("CodeQL", RULES), "{\"rule\":{\"id\":\"a\",\"index\":1}}"));
+
+        assertThat(alerts.get(0).path("rule").path("id").asText()).isEqualTo("b");
+    }
+
+    @Test
+    void ruleIdIsUsedWithoutAnIndex() throws IOException {
+        List<JsonNode> alerts = read(log(tool("CodeQL", RULES), "{\"ruleId\":\"b\"}", "{\"rule\":{\"id\":\"a\"}}"));
+
+        assertThat(alerts).extracting(a -> a.path("rule").path("id").asText()).containsExactly("b", "a");
+    }
+
+    @Test
+    void toolComponentIndexSelectsAnExtensionsRules() throws IOException {
+        String tool = "{\"driver\":{\"name\":\"CodeQL\"," + RULES + "},"
+                + "\"extensions\":[{\"name\":\"pack-1\",\"rules\":[{\"id\":\"x\"}]},"
+                + "{\"name\":\"pack-2\",\"rules\":[{\"id\":\"y\"},{\"id\":\"z\"}]}]}";
+
+        List<JsonNode> alerts = read(log(tool,
+                "{\"ruleId\":\"z\",\"rule\":{\"index\":1,\"toolComponent\":{\"index\":1}}}",
+                "{\"ruleIndex\":0,\"rule\":{\"toolComponent\":{\"index\":0}}}",
+                "{\"ruleIndex\":0}"));
+
+        assertThat(alerts).extracting(a -> a.path("rule").path("id").asText()).containsExactly("z", "x", "a");
+    }
+
+    @Test
+    void extensionRulesAreFoundByIdToo() throws IOException {
+        String tool = "{\"driver\":{\"name\":\"CodeQL\"},\"extensions\":[{\"rules\":[{\"id\":\"x\"}]}]}";
+
+        List<JsonNode> alerts = read(log(tool, "{\"ruleId\":\"x\"}"));
+
+        assertThat(alerts.get(0).path("rule").path("id").asText()).isEqualTo("x");
+    }
+
+    @Test
+    void hierarchicalIdFallsBackToTheParentRule() throws IOException {
+        List<JsonNode> alerts = read(log(tool("CodeQL", RULES), "{\"ruleId\":\"a/sub-check\"}", "{\"ruleId\":\"unknown/x\"}"));
+
+        assertThat(alerts.get(0).path("rule").path("id").asText()).isEqualTo("a");
+        assertThat(alerts.get(1).path("rule").isNull()).isTrue();
+    }
+
+    @Test
+    void resultsBeforeToolAreHeldUntilTheToolIsRead() throws IOException {
+        String log = "{\"runs\":[{\"results\":[{\"ruleId\":\"b\"},{\"ruleIndex\":0}],"
+                + "\"tool\":" + tool("Semgrep", RULES) + "}]}";
+
+        List<JsonNode> alerts = read(log);
+
+        assertThat(alerts).extracting(a -> a.path("rule").path("id").asText()).containsExactly("b", "a");
+        assertThat(alerts).extracting(a -> a.path("tool").asText()).containsOnly("Semgrep");
+    }
+
+    @Test
+    void runWithoutToolResolvesNoRules() throws IOException {
+        List<JsonNode> alerts = read("{\"runs\":[{\"results\":[{\"ruleId\":\"a\"}]}]}");
+
+        assertThat(alerts).hasSize(1);
+        assertThat(alerts.get(0).path("rule").isNull()).isTrue();
+        assertThat(alerts.get(0).path("tool").asText()).isEmpty();
+    }
+
+    @Test
+    void rawTextIsTheResultAndOtherSectionsAreSkipped() throws IOException {
+        String result = "{\"ruleId\":\"a\",\"message\":{\"text\":\"naïve ✓\"}}";
+        String log = "{\"$schema\":\"https://json.schemastore.org/sarif-2.1.0.json\",\"version\":\"2.1.0\","
+                + "\"runs\":[{\"artifacts\":[{\"location\":{\"uri\":\"a.java\"}}],\"tool\":" + tool("CodeQL", RULES) + ","
+                + "\"invocations\":[{\"executionSuccessful\":true}],\"results\":[" + result + "],"
+                + "\"properties\":{\"results\":[1,2,3]}}],\"inlineExternalProperties\":[]}";
+
+        List<FindingBuilder.RawAlert> alerts = readRaw(log);
+
+        assertThat(alerts).hasSize(1);
+        assertThat(alerts.get(0).raw()).isEqualTo(result);
+    }
+
+    @Test
+    void toolNamesIncludeRunsWithoutResults() throws IOException {
+        String log = "{\"runs\":[{\"tool\":" + tool("CodeQL", RULES) + ",\"results\":[{\"ruleId\":\"a\"}]},"
+                + "{\"tool\":" + tool("Semgrep", RULES) + ",\"results\":[]},"
+                + "{\"tool\":" + tool("CodeQL", RULES) + "}]}";
+        JsonParser parser = new ObjectMapper().createParser(log);
+        SarifAlertReader reader = new SarifAlertReader(parser, slicer(log));
+
+        while (reader.next() != null) {
+            // drain
+        }
+
+        assertThat(reader.toolNames()).containsExactly("CodeQL", "Semgrep");
+    }
+
+    @Test
+    void rootMustBeAnObject() throws IOException {
+        JsonParser parser = new ObjectMapper().createParser("[]");
+        SarifAlertReader reader = new SarifAlertReader(parser, slicer("[]"));
+
+        assertThatThrownBy(reader::next).isInstanceOf(JsonParseException.class);
+    }
+
+    @Test
+    void streamedFindingsCarryTheDriverName() throws IOException {
+        ParserService parserService = new ParserService(new MapperRegistry(List.of(
+                new CodeScanMapper(), new DependabotMapper(), new SecretScanMapper(), new SarifMapper())));
+        String log = "{\"runs\":[{\"tool\":" + tool("CodeQL", RULES) + ",\"results\":[{\"ruleId\":\"a\"}]},"
+                + "{\"tool\":" + tool("Semgrep", RULES) + ",\"results\":[{\"ruleId\":\"a\"}]}]}";
+
+        List<Finding> findings = new ArrayList<>();
+        try (FindingIterator it = parserService.stream(ToolType.SARIF, new ByteArrayInputStream(log.getBytes(StandardCharsets.UTF_8)))) {
+            it.forEachRemaining(findings::add);
+            assertThat(it.toolNames()).containsExactly("CodeQL", "Semgrep");
+        }
+
+        assertThat(findings).extracting(Finding::getToolName).containsExactly("CodeQL", "Semgrep");
+        assertThat(findings).extracting(Finding::getTitle).containsOnly("Rule A");
+        // Same rule and position, but reported by different tools
+        assertThat(findings.get(0).getId()).isNotEqualTo(findings.get(1).getId());
+    }
+
+    private static String tool(String name, String rules) {
+        return "{\"driver\":{\"name\":\"" + name + "\"," + rules + "}}";
+    }
+
+    private static String log(String tool, String... results) {
+        return "{\"version\":\"2.1.0\",\"runs\":[{\"tool\":" + tool + ",\"results\":[" + String.join(",", results) + "]}]}";
+    }
+
+    private static List<JsonNode> read(String log) throws IOException {
+        return readRaw(log).stream().map(FindingBuilder.RawAlert::node).toList();
+    }
+
+    private static List<FindingBuilder.RawAlert> readRaw(String log) throws IOException {
+        List<FindingBuilder.RawAlert> alerts = new ArrayList<>();
+        try (JsonParser parser = new ObjectMapper().createParser(log)) {
+            SarifAlertReader reader = new SarifAlertReader(parser, slicer(log));
+            FindingBuilder.RawAlert alert;
+            while ((alert = reader.next()) != null) {
+                alerts.add(alert);
+            }
+        }
+        return alerts;
+    }
+
+    private static FindingIterator.RawSlicer slicer(String source) {
+        return (start, end) -> source.substring((int) start.getCharOffset(), (int) end.getCharOffset());
+    }
+}
@@ -0,0 +1,75 @@
+package com.parser.Parser.Application.service;
+
+import com.github.luben.zstd.ZstdOutputStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.GZIPOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ScanInputStreamsTest {
+
+    private static final byte[] EXPORT = "[{\"number\":1,\"rule\":{\"name\":\"Grüße\"}}]".getBytes(StandardCharsets.UTF_8);
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void plainInputIsPassedThrough() throws IOException {
+        assertThat(read(EXPORT)).isEqualTo(EXPORT);
+    }
+
+    @Test
+    void gzipInputIsDecompressed() throws IOException {
+        ByteArrayOutputStream gzip = new ByteArrayOutputStream();
+        try (OutputStream out = new GZIPOutputStream(gzip)) {
+            out.write(EXPORT);
+        }
+
+        assertThat(read(gzip.toByteArray())).isEqualTo(EXPORT);
+    }
+
+    @Test
+    void zstdInputIsDecompressed() throws IOException {
+        ByteArrayOutputStream zstd = new ByteArrayOutputStream();
+        try (OutputStream out = new ZstdOutputStream(zstd)) {
+            out.write(EXPORT);
+        }
+
+        assertThat(read(zstd.toByteArray())).isEqualTo(EXPORT);
+    }
+
+    @Test
+    void inputShorterThanAMagicNumberIsPassedThrough() throws IOException {
+        assertThat(read(new byte[0])).isEmpty();
+        assertThat(read(new byte[]{0x1f})).containsExactly(0x1f);
+        assertThat(read("[]".getBytes(StandardCharsets.UTF_8))).isEqualTo("[]".getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void filesAreOpenedTheSameWay() throws IOException {
+        Path file = dir.resolve("export.json.gz");
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(file))) {
+            out.write(EXPORT);
+        }
+
+        try (InputStream in = ScanInputStreams.open(file)) {
+            assertThat(in.readAllBytes()).isEqualTo(EXPORT);
+        }
+    }
+
+    private static byte[] read(byte[] raw) throws IOException {
+        try (InputStream in = ScanInputStreams.open(new ByteArrayInputStream(raw))) {
+            return in.readAllBytes();
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.parser.Parser.Application.service;
+
+import com.parser.Parser.Application.model.Finding;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SharedBulkWriterTest {
+
+    private static final String FAILED = "b2";
+
+    private final List<List<String>> requests = new ArrayList<>();
+    private final List<CompletableFuture<List<String>>> responses = new ArrayList<>();
+
+    @Test
+    void interleavedFilesEachGetTheirOwnIdsWithAFailedItemInPlace() {
+        SharedBulkWriter writer = new SharedBulkWriter(this::upsert, 4);
+
+        CompletableFuture<List<String>> a1 = writer.add(findings("a1", "a2"));
+        CompletableFuture<List<String>> b1 = writer.add(findings("b1"));
+        assertThat(requests).isEmpty();
+        CompletableFuture<List<String>> a2 = writer.add(findings("a3"));
+        CompletableFuture<List<String>> b2 = writer.add(findings(FAILED, "b3"));
+        CompletableFuture<List<String>> a3 = writer.add(findings("a4"));
+        writer.flush();
+
+        // The add that crossed flush-size sent everything pending, the rest went out on flush()
+        assertThat(requests).containsExactly(
+                List.of("a1", "a2", "b1", "a3"),
+                List.of(FAILED, "b3", "a4"));
+        assertThat(a1).isNotDone();
+        responses.forEach(this::answer);
+
+        assertThat(a1.join()).containsExactly("a1", "a2");
+        assertThat(b1.join()).containsExactly("b1");
+        assertThat(a2.join()).containsExactly("a3");
+        assertThat(b2.join()).containsExactly(null, "b3");
+        assertThat(a3.join()).containsExactly("a4");
+        assertThat(writer.failure()).isNull();
+    }
+
+    @Test
+    void failedRequestFailsOnlyTheAddsItCarried() {
+        SharedBulkWriter writer = new SharedBulkWriter(this::upsert, 3);
+
+        CompletableFuture<List<String>> a1 = writer.add(findings("a1"));
+        CompletableFuture<List<String>> b1 = writer.add(findings("b1", "b2"));
+        CompletableFuture<List<String>> a2 = writer.add(findings("a2"));
+        writer.flush();
+        IllegalStateException error = new IllegalStateException("bulk rejected");
+        responses.get(0).completeExceptionally(error);
+        answer(responses.get(1));
+
+        assertThatThrownBy(a1::join).hasCause(error);
+        assertThatThrownBy(b1::join).hasCause(error);
+        assertThat(a2.join()).containsExactly("a2");
+        assertThat(writer.failure()).isSameAs(error);
+    }
+
+    @Test
+    void flushWithNothingPendingSendsNothing() {
+        SharedBulkWriter writer = new SharedBulkWriter(this::upsert, 3);
+
+        writer.flush();
+        CompletableFuture<List<String>> empty = writer.add(List.of());
+        writer.flush();
+        answer(responses.get(0));
+
+        assertThat(requests).containsExactly(List.of());
+        assertThat(empty.join()).isEmpty();
+    }
+
+    private CompletableFuture<List<String>> upsert(List<Finding> findings) {
+        requests.add(findings.stream().map(Finding::getId).toList());
+        CompletableFuture<List<String>> response = new CompletableFuture<>();
+        responses.add(response);
+        return response;
+    }
+
+    // Completes a request with one id per finding in request order, null for the failing item.
+    private void answer(CompletableFuture<List<String>> response) {
+        List<String> ids = new ArrayList<>(requests.get(responses.indexOf(response)));
+        ids.replaceAll(id -> FAILED.equals(id) ? null : id);
+        response.complete(ids);
+    }
+
+    private static List<Finding> findings(String... ids) {
+        return Arrays.stream(ids).map(id -> {
+            Finding finding = new Finding();
+            finding.setId(id);
+            return finding;
+        }).toList();
+    }
+}
@@ -0,0 +1,79 @@
+package com.parser.Parser.Application.service;
+
+import com.parser.Parser.Application.model.Finding;
+import com.parser.Parser.Application.model.Severity;
+import com.parser.Parser.Application.model.Status;
+import com.parser.Parser.Application.model.ToolType;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+class UpsertPlanTest {
+
+    private static final String INDEX = "findings-1";
+
+    private final FindingDedupCache cache = new FindingDedupCache(16, 1000);
+
+    @Test
+    void cachedUnchangedFindingsResolveWithoutLookupOrWrite() {
+        Finding finding = finding(1, Severity.HIGH);
+        cache.put(INDEX, finding.getId(), finding.getId(), ElasticsearchService.severityStatusDigest(finding));
+
+        UpsertPlan plan = new UpsertPlan(List.of(finding), INDEX, cache);
+
+        assertThat(plan.resolved()).isTrue();
+        assertThat(plan.lookupIds()).isEmpty();
+        assertThat(plan.ids()).containsExactly(finding.getId());
+    }
+
+    @Test
+    void decidesNewChangedAndUnchangedInInputOrder() {
+        Finding cachedChanged = finding(1, Severity.HIGH);
+        cache.put(INDEX, cachedChanged.getId(), cachedChanged.getId(), ElasticsearchService.severityStatusDigest(finding(1, Severity.LOW)));
+        Finding storedUnchanged = finding(2, Severity.MEDIUM);
+        Finding storedChanged = finding(3, Severity.CRITICAL);
+        Finding brandNew = finding(4, Severity.LOW);
+        List<Finding> findings = List.of(cachedChanged, storedUnchanged, storedChanged, brandNew);
+
+        UpsertPlan plan = new UpsertPlan(findings, INDEX, cache);
+        assertThat(plan.resolved()).isFalse();
+        assertThat(plan.lookupIds()).containsExactly(storedUnchanged.getId(), storedChanged.getId(), brandNew.getId());
+
+        List<Finding> toWrite = plan.toWrite(Map.of(
+                storedUnchanged.getId(), finding(2, Severity.MEDIUM),
+                storedChanged.getId(), finding(3, Severity.LOW)));
+        assertThat(toWrite).containsExactly(cachedChanged, storedChanged, brandNew);
+        assertThat(toWrite).allSatisfy(f -> assertThat(f.getUpdatedAt()).isNotNull());
+
+        List<String> ids = plan.complete(Arrays.asList(cachedChanged.getId(), null, brandNew.getId()));
+        assertThat(ids).containsExactly(cachedChanged.getId(), storedUnchanged.getId(), null, brandNew.getId());
+
+        // Found unchanged and written findings are cached, a failed write is not
+        assertThat(cache.get(INDEX, storedUnchanged.getId())).isNotNull();
+        assertThat(cache.get(INDEX, brandNew.getId())).isNotNull();
+        assertThat(cache.get(INDEX, storedChanged.getId())).isNull();
+        assertThat(cache.get(INDEX, cachedChanged.getId()).digest()).isEqualTo(ElasticsearchService.severityStatusDigest(cachedChanged));
+
+        IngestionMetrics metrics = mock(IngestionMetrics.class);
+        plan.recordDedup(metrics);
+        verify(metrics).recordDedup("unchanged", 1);
+        verify(metrics).recordDedup("changed", 2);
+        verify(metrics).recordDedup("new", 1);
+    }
+
+    private static Finding finding(int number, Severity severity) {
+        Finding finding = new Finding();
+        finding.setToolType(ToolType.CODESCAN);
+        finding.setTitle("rule");
+        finding.setSeverity(severity);
+        finding.setStatus(Status.OPEN);
+        finding.setId(FindingFingerprint.of(ToolType.CODESCAN, String.valueOf(number), "rule"));
+        return finding;
+    }
+}